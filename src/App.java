@@ -1,10 +1,22 @@
 // App.java
-import controller.AuthController;
-import controller.CustomerController;
-import model.entity.User;
+import api.BankingApiServer;
+import context.AppContext;
+import database.Database;
 import model.service.AuthService;
+import session.BankingSession;
+import session.SessionConsole;
+import session.SessionExecutor;
 import util.DatabaseInitUtil;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Banking System Application
  * @author Group 2 - ISTAD
@@ -12,114 +24,121 @@ import util.DatabaseInitUtil;
  * @since 2025
  */
 public class App {
-    private final AuthController authController;
-    private final CustomerController customerController;
+    private final BankingSession consoleSession;
     private final AuthService authService;
+    private SessionExecutor sessionExecutor; // Only when serving remote sessions
+    private BankingApiServer apiServer;      // Only when serving the HTTP API
+
+    // Phase name and duration in ms, in completion order
+    private final List<String> startupTimings = new ArrayList<>();
 
     public App() {
-        this.authController = new AuthController();
-        this.customerController = new CustomerController();
-        this.authService = new AuthService();
+        this.consoleSession = new BankingSession();
+        this.authService = AppContext.getInstance().getAuthService();
     }
 
 
     /**
-     * Initialize the application
+     * Initialize the application.
+     * The schema stage must finish first; reference data and the default admin
+     * only depend on it, so they run side by side afterwards.
      */
     public void init() {
         System.out.println("🏦 Initializing ISTAD Banking System...");
+        long startedAt = System.nanoTime();
+
+        // Initialize database schema and required data
+        timed("Schema", () -> new DatabaseInitUtil().initializeAll());
 
-        // Initialize database with required data
-        DatabaseInitUtil dbInit = new DatabaseInitUtil();
-        dbInit.initializeAll();
+        ExecutorService initExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "app-init");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture.allOf(
+                    // Load lookup tables once; services read them from memory afterwards
+                    CompletableFuture.runAsync(() -> timed("Reference data", () -> AppContext.getInstance().getReferenceData().reload()), initExecutor),
+                    // Create default admin if not exists
+                    CompletableFuture.runAsync(() -> timed("Default admin", this::createDefaultAdmin), initExecutor)
+            ).join();
+        } finally {
+            initExecutor.shutdown();
+        }
 
-        // Create default admin if not exists
-        createDefaultAdmin();
+        // Fold new ledger postings into balance checkpoints in the background
+        AppContext.getInstance().getLedgerService().startCheckpointing();
 
         System.out.println("✅ System initialized successfully!");
         System.out.println("💡 You can now:");
         System.out.println("   • Login with existing account");
         System.out.println("   • Register new customer account");
         System.out.println("   • Use default admin (username: admin, password: Admin123!)");
+
+        printStartupTimings((System.nanoTime() - startedAt) / 1_000_000);
     }
 
     /**
-     * Start the application main loop
+     * Run a startup phase and record how long it took
      */
-    public void start() {
-        System.out.println("🚀 Starting ISTAD Banking System...\n");
-
-        while (true) {
-            try {
-                // Handle authentication
-                User authenticatedUser = authController.handleAuthentication();
-
-                if (authenticatedUser != null) {
-                    // Route user based on role
-                    if (authenticatedUser.getRole() == User.Role.ADMIN) {
-                        handleAdminFlow(authenticatedUser);
-                    } else if (authenticatedUser.getRole() == User.Role.CUSTOMER) {
-                        handleCustomerFlow(authenticatedUser);
-                    }
-                }
-
-            } catch (Exception e) {
-                System.out.println("❌ An unexpected error occurred: " + e.getMessage());
-                e.printStackTrace();
+    private void timed(String phase, Runnable action) {
+        long startedAt = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+            synchronized (startupTimings) {
+                startupTimings.add(phase + ": " + elapsedMs + " ms");
+            }
+        }
+    }
 
-                // Ask user if they want to continue
-                System.out.println("\nPress Enter to continue or Ctrl+C to exit...");
-                try {
-                    System.in.read();
-                } catch (Exception ignored) {}
+    private void printStartupTimings(long totalMs) {
+        System.out.println("⏱️ Startup took " + totalMs + " ms");
+        synchronized (startupTimings) {
+            for (String timing : startupTimings) {
+                System.out.println("   • " + timing);
             }
         }
     }
 
     /**
-     * Handle admin flow (placeholder for now)
+     * Start the application main loop on the local console
      */
-    private void handleAdminFlow(User admin) {
-        System.out.println("\n🔧 ADMIN PANEL");
-        System.out.println("Admin features coming in Phase 6!");
-        System.out.println("For now, you can:");
-        System.out.println("1. Test unlock account feature");
-
-        // Simple admin menu for testing
-        java.util.Scanner scanner = new java.util.Scanner(System.in);
-        System.out.println("\nOptions:");
-        System.out.println("1. Unlock Account");
-        System.out.println("0. Logout");
-        System.out.print("Choose option: ");
+    public void start() {
+        System.out.println("🚀 Starting ISTAD Banking System...\n");
 
-        try {
-            int choice = Integer.parseInt(scanner.nextLine().trim());
-            if (choice == 1) {
-                authController.handleUnlockAccount();
-            } else if (choice == 0) {
-                authController.logout();
-            }
-        } catch (Exception e) {
-            System.out.println("Invalid input");
-        }
+        consoleSession.run();
     }
 
     /**
-     * Handle customer flow (now fully implemented!)
+     * Also serve sessions over TCP, each on its own virtual thread
      */
-    private void handleCustomerFlow(User customer) {
-        System.out.println("\n🏦 CUSTOMER PORTAL");
+    public void listen(InetSocketAddress address) throws IOException {
+        sessionExecutor = new SessionExecutor();
+        sessionExecutor.listen(address);
+        System.out.println("🌐 Accepting remote sessions on " + sessionExecutor.getAddress());
+    }
 
-        // Pass control to CustomerController
-        boolean continueSession = customerController.handleCustomerFlow(customer, authController);
+    /**
+     * Also serve the HTTP/JSON API
+     */
+    public void serveApi(InetSocketAddress address) throws IOException {
+        apiServer = new BankingApiServer(address);
+        apiServer.start();
+        System.out.println("🌐 HTTP API listening on " + apiServer.getAddress());
+    }
 
-        if (!continueSession) {
-            // Customer chose to logout
-            authController.logout();
+    /**
+     * Parse "[host:]port". Without a host only loopback is bound - neither
+     * listener has TLS, so exposing it further is an explicit choice.
+     */
+    private static InetSocketAddress endpoint(String value) {
+        int separator = value.lastIndexOf(':');
+        if (separator < 0) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(value));
         }
-
-        // Clear customer data when session ends
-        customerController.clearCurrentCustomer();
+        return new InetSocketAddress(value.substring(0, separator), Integer.parseInt(value.substring(separator + 1)));
     }
 
     /**
@@ -143,9 +162,21 @@ public class App {
     public void shutdown() {
         System.out.println("🔒 Shutting down ISTAD Banking System...");
 
-        if (authController.isLoggedIn()) {
-            authController.logout();
+        if (apiServer != null) {
+            apiServer.stop(1);
+        }
+        if (sessionExecutor != null) {
+            sessionExecutor.shutdown();
         }
+        consoleSession.endSession();
+
+        // Commit queued postings, then release pooled database connections
+        AppContext.getInstance().getLedgerService().stopCheckpointing();
+        AppContext.getInstance().getJournalWriter().close();
+
+        Database database = AppContext.getInstance().getDatabase();
+        System.out.println("📊 Connection pool: " + database.getPoolStats());
+        database.shutdown();
 
         System.out.println("✅ System shutdown complete. Goodbye!");
         System.exit(0);
@@ -155,6 +186,9 @@ public class App {
      * Main method - Entry point
      */
     public static void main(String[] args) {
+        // Before any view wraps System.in in a Scanner
+        SessionConsole.install();
+
         App app = new App();
 
         // Add shutdown hook for clean exit
@@ -164,6 +198,15 @@ public class App {
             // Initialize system
             app.init();
 
+            // --port [host:]<n> additionally serves remote console sessions, --http [host:]<n> the HTTP API
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                switch (args[i]) {
+                    case "--port" -> app.listen(endpoint(args[i + 1]));
+                    case "--http" -> app.serveApi(endpoint(args[i + 1]));
+                    default -> System.err.println("Unknown option: " + args[i]);
+                }
+            }
+
             // Start application
             app.start();
 
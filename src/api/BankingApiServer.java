@@ -0,0 +1,516 @@
+// api/BankingApiServer.java
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import context.AppContext;
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.Transaction;
+import model.entity.User;
+import model.repository.TransactionRepository;
+import model.service.AccountService;
+import model.service.AuthService;
+import model.service.LoginRateLimiter;
+import model.service.SessionStore;
+import model.service.TransactionService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP/JSON front end for other internal systems.
+ * Runs on the JDK's built-in server with one virtual thread per exchange.
+ * Connections are HTTP/1.1 keep-alive: every handler drains the request
+ * body and sends an exact Content-Length, so a client can pipeline requests
+ * on one connection. Calls authenticate with "Authorization: Bearer <token>"
+ * from POST /api/login; tokens are SessionStore sessions, so the caller's
+ * profile and account list are served from the session cache.
+ * Plain HTTP only: bind it to loopback or an internal interface. Request
+ * bodies over 64 KiB are refused, and wrong PINs are throttled per customer.
+ *
+ * POST /api/login            {username, password}
+ * POST /api/logout
+ * GET  /api/accounts         the customer's accounts with balances
+ * GET  /api/accounts/{no}    one account
+ * POST /api/deposit          {accountNo, amount, pin, remark?}
+ * POST /api/withdraw         {accountNo, amount, pin, remark?}
+ * POST /api/transfer         {fromAccountNo, toAccountNo, amount, pin, remark?}
+ * GET  /api/transactions     ?limit=&after=&accountNo= newest first, keyset paginated
+ */
+public class BankingApiServer {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AuthService authService;
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final SessionStore sessionStore;
+    private final LoginRateLimiter loginRateLimiter;
+
+    public BankingApiServer(InetSocketAddress address) throws IOException {
+        AppContext context = AppContext.getInstance();
+        this.authService = context.getAuthService();
+        this.accountService = context.getAccountService();
+        this.transactionService = context.getTransactionService();
+        this.sessionStore = context.getSessionStore();
+        this.loginRateLimiter = context.getLoginRateLimiter();
+
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("api-", 0).factory());
+        this.server.setExecutor(executor);
+
+        route("/api/login", "POST", false, this::login);
+        route("/api/logout", "POST", false, this::logout);
+        route("/api/accounts", "GET", true, this::accounts);
+        route("/api/deposit", "POST", true, this::deposit);
+        route("/api/withdraw", "POST", true, this::withdraw);
+        route("/api/transfer", "POST", true, this::transfer);
+        route("/api/transactions", "GET", true, this::transactions);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stop accepting requests, giving in-flight ones up to delaySeconds to finish
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdownNow();
+    }
+
+    // ========== ENDPOINTS ==========
+
+    private Response login(Request request) {
+        String username = request.string("username");
+        String password = request.string("password");
+
+        AuthService.AuthResult result = authService.login(username, password, request.clientAddress());
+        if (result.isThrottled()) {
+            throw new ApiException(429, "TOO_MANY_ATTEMPTS", result.getMessage());
+        }
+        if (!result.isSuccess()) {
+            throw new ApiException(401, "LOGIN_FAILED", result.getMessage());
+        }
+
+        User user = result.getUser();
+        SessionStore.Session session = sessionStore.create(user);
+
+        return Response.ok(Json.object()
+                .put("token", session.getToken())
+                .put("username", user.getUsername())
+                .put("role", user.getRole().name())
+                .put("customerId", user.getCustomerId()));
+    }
+
+    private Response logout(Request request) {
+        sessionStore.invalidate(request.bearerToken());
+        return Response.ok(Json.object());
+    }
+
+    private Response accounts(Request request) {
+        SessionStore.Session session = request.customerSession();
+
+        String accountNo = request.pathTail("/api/accounts");
+        if (accountNo != null) {
+            return Response.ok(accountJson(ownedAccount(session, accountNo)));
+        }
+
+        List<Object> accounts = session.getAccounts().stream()
+                .<Object>map(this::accountJson)
+                .toList();
+        return Response.ok(Json.object().put("accounts", accounts));
+    }
+
+    private Response deposit(Request request) {
+        SessionStore.Session session = request.customerSession();
+        Account account = ownedAccount(session, request.string("accountNo"));
+        BigDecimal amount = request.amount("amount");
+        checkPin(session, request.string("pin"));
+
+        return transactionResponse(transactionService.deposit(
+                account.getId(), amount, null, request.optionalString("remark")));
+    }
+
+    private Response withdraw(Request request) {
+        SessionStore.Session session = request.customerSession();
+        Account account = ownedAccount(session, request.string("accountNo"));
+        BigDecimal amount = request.amount("amount");
+        checkPin(session, request.string("pin"));
+
+        return transactionResponse(transactionService.withdraw(
+                account.getId(), amount, null, request.optionalString("remark")));
+    }
+
+    private Response transfer(Request request) {
+        SessionStore.Session session = request.customerSession();
+        Account from = ownedAccount(session, request.string("fromAccountNo"));
+        Account to = accountService.findAccountByNumber(request.string("toAccountNo"))
+                .orElseThrow(() -> new ApiException(404, "RECEIVER_NOT_FOUND", "Receiver account not found"));
+        BigDecimal amount = request.amount("amount");
+        checkPin(session, request.string("pin"));
+
+        return transactionResponse(transactionService.transfer(
+                from.getId(), to.getId(), amount, null, request.optionalString("remark")));
+    }
+
+    private Response transactions(Request request) {
+        SessionStore.Session session = request.customerSession();
+        int limit = request.queryInt("limit", DEFAULT_PAGE_SIZE);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiException(400, "INVALID_LIMIT", "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TransactionRepository.PageCursor after = decodeCursor(request.query("after"));
+
+        String accountNo = request.query("accountNo");
+        TransactionRepository.TransactionPage page = accountNo != null
+                ? transactionService.getAccountTransactionPage(ownedAccount(session, accountNo).getId(), after, limit)
+                : transactionService.getCustomerTransactionPage(session.getUser().getCustomerId(), after, limit);
+
+        List<Object> transactions = page.getTransactions().stream()
+                .<Object>map(this::transactionJson)
+                .toList();
+        return Response.ok(Json.object()
+                .put("transactions", transactions)
+                .put("next", page.hasMore() ? encodeCursor(page.getNextCursor()) : null));
+    }
+
+    // ========== HELPERS ==========
+
+    private Account ownedAccount(SessionStore.Session session, String accountNo) {
+        // Only the caller's own accounts are looked at, so someone else's
+        // account looks exactly like a missing one
+        return session.findAccount(accountNo)
+                .orElseThrow(() -> new ApiException(404, "ACCOUNT_NOT_FOUND", "Account not found"));
+    }
+
+    private void checkPin(SessionStore.Session session, String pin) {
+        // Every check takes an attempt up front and a correct PIN gives it back,
+        // so concurrent guesses can't slip past the limit
+        Integer customerId = session.getUser().getCustomerId();
+        long retryAfterMillis = loginRateLimiter.tryAcquirePin(customerId);
+        if (retryAfterMillis > 0) {
+            throw new ApiException(429, "TOO_MANY_PIN_ATTEMPTS",
+                    "Too many wrong PINs. Try again in " + ((retryAfterMillis + 999) / 1000) + " seconds.");
+        }
+
+        Optional<Customer> customer = session.getCustomer();
+        if (customer.isEmpty() || customer.get().getPin() == null || pin == null ||
+                !MessageDigest.isEqual(customer.get().getPin().getBytes(StandardCharsets.UTF_8),
+                                       pin.getBytes(StandardCharsets.UTF_8))) {
+            throw new ApiException(403, "INVALID_PIN", "Invalid PIN");
+        }
+        loginRateLimiter.releasePin(customerId);
+    }
+
+    private Response transactionResponse(TransactionService.TransactionResult result) {
+        if (!result.isSuccess()) {
+            int status = switch (result.getErrorCode()) {
+                case ERROR -> 500;
+                case DAILY_LIMIT_UNAVAILABLE -> 503;
+                // Not a failure the client may blindly retry: it could have been applied
+                case OUTCOME_UNKNOWN -> 202;
+                default -> 422;
+            };
+            Json.ObjectBuilder body = Json.object()
+                    .put("error", result.getErrorCode().name())
+                    .put("message", result.getErrorCode() == TransactionService.TransactionResult.ErrorCode.OUTCOME_UNKNOWN
+                            ? "Outcome unknown: check the transaction history before retrying"
+                            : "Transaction refused: " + result.getErrorCode().name());
+            if (result.getErrorCode() == TransactionService.TransactionResult.ErrorCode.DAILY_LIMIT_EXCEEDED) {
+                body.put("dailyLimit", result.getDailyLimit()).put("usedToday", result.getUsedToday());
+            }
+            if (result.getErrorCode() == TransactionService.TransactionResult.ErrorCode.OUTCOME_UNKNOWN) {
+                body.put("status", "UNKNOWN");
+            }
+            return new Response(status, body);
+        }
+
+        Account receiver = result.getReceiverAccount();
+        return Response.ok(Json.object()
+                .put("status", "SUCCESS")
+                .put("transactionId", result.getTransaction().getId())
+                .put("amount", result.getAmount())
+                .put("currency", result.getAccount().getAccountCurrency())
+                .put("newBalance", result.getNewBalance())
+                .put("convertedAmount", receiver != null ? result.getConvertedAmount() : null)
+                .put("receiverCurrency", receiver != null ? receiver.getAccountCurrency() : null)
+                .put("exchangeRate", receiver != null ? result.getExchangeRate() : null)
+                .put("newReceiverBalance", result.getNewReceiverBalance()));
+    }
+
+    private Map<String, Object> accountJson(Account account) {
+        return Json.object()
+                .put("accountNo", account.getAccountNo())
+                .put("accountName", account.getAccountName())
+                .put("accountType", account.getAccountTypeName())
+                .put("currency", account.getAccountCurrency())
+                .put("balance", account.getBalance())
+                .put("status", account.getStatus())
+                .put("maturityDate", account.getMaturityDate() != null ? account.getMaturityDate().toString() : null)
+                .build();
+    }
+
+    private Map<String, Object> transactionJson(Transaction transaction) {
+        return Json.object()
+                .put("id", transaction.getId())
+                .put("type", transaction.getTransactionTypeName())
+                .put("status", transaction.getStatus())
+                .put("amount", transaction.getAmount())
+                .put("fromAccountNo", transaction.getSenderAccountNo())
+                .put("toAccountNo", transaction.getReceiverAccountNo())
+                .put("billCategory", transaction.getBillCategoryName())
+                .put("remark", transaction.getRemark())
+                .put("createdAt", transaction.getCreatedAt().toString())
+                .build();
+    }
+
+    /**
+     * Cursors are opaque to clients: "<createdAt>_<id>"
+     */
+    private static String encodeCursor(TransactionRepository.PageCursor cursor) {
+        return cursor.getCreatedAt() + "_" + cursor.getId();
+    }
+
+    private static TransactionRepository.PageCursor decodeCursor(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int separator = value.lastIndexOf('_');
+        try {
+            return new TransactionRepository.PageCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            throw new ApiException(400, "INVALID_CURSOR", "Malformed 'after' cursor");
+        }
+    }
+
+    // ========== PLUMBING ==========
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Response handle(Request request);
+    }
+
+    private void route(String path, String method, boolean authenticated, Endpoint endpoint) {
+        server.createContext(path, exchange -> {
+            Response response;
+            try {
+                // Always consume the body so the connection can carry the next request;
+                // closing the stream discards whatever is left past the cap
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readNBytes(MAX_BODY_BYTES + 1);
+                }
+                if (body.length > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "BODY_TOO_LARGE", "Request body is limited to " + MAX_BODY_BYTES + " bytes");
+                }
+
+                if (!method.equals(exchange.getRequestMethod())) {
+                    throw new ApiException(405, "METHOD_NOT_ALLOWED", "Use " + method + " " + path);
+                }
+
+                Request request = new Request(exchange, body);
+                if (authenticated && request.session() == null) {
+                    throw new ApiException(401, "UNAUTHORIZED", "Missing or expired token");
+                }
+                response = endpoint.handle(request);
+
+            } catch (ApiException e) {
+                response = new Response(e.status, Json.object().put("error", e.code).put("message", e.getMessage()));
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestMethod() + " " +
+                        exchange.getRequestURI().getPath() + ": " + e.getMessage());
+                response = new Response(500, Json.object().put("error", "ERROR").put("message", "Internal error"));
+            }
+            send(exchange, response);
+        });
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] bytes = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private final class Request {
+        private final HttpExchange exchange;
+        private final byte[] rawBody;
+        private SessionStore.Session session;
+        private Map<String, Object> body;
+        private Map<String, String> query;
+
+        private Request(HttpExchange exchange, byte[] rawBody) {
+            this.exchange = exchange;
+            this.rawBody = rawBody;
+        }
+
+        private String clientAddress() {
+            return exchange.getRemoteAddress().getAddress().getHostAddress();
+        }
+
+        private String bearerToken() {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            if (header == null || !header.startsWith("Bearer ")) {
+                return null;
+            }
+            return header.substring("Bearer ".length()).trim();
+        }
+
+        private SessionStore.Session session() {
+            if (session == null) {
+                session = sessionStore.get(bearerToken()).orElse(null);
+            }
+            return session;
+        }
+
+        /**
+         * Session of the caller; admin tokens have no accounts to act on
+         */
+        private SessionStore.Session customerSession() {
+            User user = session().getUser();
+            if (user.getRole() != User.Role.CUSTOMER || user.getCustomerId() == null) {
+                throw new ApiException(403, "NOT_A_CUSTOMER", "Only customers with a profile can use this endpoint");
+            }
+            return session();
+        }
+
+        private Map<String, Object> body() {
+            if (body == null) {
+                if (rawBody.length == 0) {
+                    body = Map.of();
+                } else {
+                    Object parsed;
+                    try {
+                        parsed = Json.parse(new String(rawBody, StandardCharsets.UTF_8));
+                    } catch (IllegalArgumentException e) {
+                        throw new ApiException(400, "INVALID_JSON", e.getMessage());
+                    }
+                    if (!(parsed instanceof Map<?, ?>)) {
+                        throw new ApiException(400, "INVALID_JSON", "Request body must be a JSON object");
+                    }
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> object = (Map<String, Object>) parsed;
+                    body = object;
+                }
+            }
+            return body;
+        }
+
+        private String string(String field) {
+            String value = optionalString(field);
+            if (value == null || value.isBlank()) {
+                throw new ApiException(400, "MISSING_FIELD", "'" + field + "' is required");
+            }
+            return value;
+        }
+
+        private String optionalString(String field) {
+            Object value = body().get(field);
+            return value != null ? value.toString() : null;
+        }
+
+        private BigDecimal amount(String field) {
+            Object value = body().get(field);
+            try {
+                return value instanceof BigDecimal decimal ? decimal : new BigDecimal(string(field));
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "INVALID_AMOUNT", "'" + field + "' must be a number");
+            }
+        }
+
+        private String query(String name) {
+            if (query == null) {
+                query = new HashMap<>();
+                String raw = exchange.getRequestURI().getRawQuery();
+                if (raw != null) {
+                    for (String pair : raw.split("&")) {
+                        int equals = pair.indexOf('=');
+                        String key = equals < 0 ? pair : pair.substring(0, equals);
+                        String value = equals < 0 ? "" : pair.substring(equals + 1);
+                        query.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                                URLDecoder.decode(value, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return query.get(name);
+        }
+
+        private int queryInt(String name, int defaultValue) {
+            String value = query(name);
+            if (value == null || value.isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "INVALID_PARAMETER", "'" + name + "' must be an integer");
+            }
+        }
+
+        /**
+         * Path segment after a context prefix ("/api/accounts/123" -> "123"), or null
+         */
+        private String pathTail(String prefix) {
+            String path = exchange.getRequestURI().getPath();
+            if (path.length() <= prefix.length() + 1) {
+                return null;
+            }
+            return path.substring(prefix.length() + 1);
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+        private final Object body;
+
+        private Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        private static Response ok(Object body) {
+            return new Response(200, body);
+        }
+    }
+
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+        private final String code;
+
+        private ApiException(int status, String code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+// context/AppContext.java
+package context;
+
+import database.Database;
+import database.JournalWriter;
+import model.repository.AccountRepository;
+import model.repository.AuthRepository;
+import model.repository.CustomerRepository;
+import model.repository.LedgerRepository;
+import model.repository.OnboardingRepository;
+import model.repository.ReferenceDataRepository;
+import model.repository.TransactionRepository;
+import model.service.AccountNumberAllocator;
+import model.service.AccountService;
+import model.service.AuthService;
+import model.service.CustomerService;
+import model.service.DailySpendCache;
+import model.service.LedgerService;
+import model.service.LoginRateLimiter;
+import model.service.PasswordHasher;
+import model.service.ReferenceData;
+import model.service.SessionStore;
+import model.service.TransactionService;
+
+/**
+ * Application-wide object graph.
+ * Repositories, caches and services are created once and shared by every
+ * controller, so caches and the connection pool are seen by all code paths.
+ * Tests can build a context with replaced parts via builder() and install it
+ * with setInstance() before creating controllers.
+ */
+public class AppContext {
+    private static AppContext instance;
+
+    private final Database database;
+    private final JournalWriter journalWriter;
+
+    private final AccountRepository accountRepository;
+    private final AuthRepository authRepository;
+    private final CustomerRepository customerRepository;
+    private final LedgerRepository ledgerRepository;
+    private final OnboardingRepository onboardingRepository;
+    private final ReferenceDataRepository referenceDataRepository;
+    private final TransactionRepository transactionRepository;
+
+    private final ReferenceData referenceData;
+    private final DailySpendCache dailySpendCache;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
+    private final SessionStore sessionStore;
+
+    private final LedgerService ledgerService;
+    private final AuthService authService;
+    private final CustomerService customerService;
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+
+    private AppContext(Builder builder) {
+        // Only touch the real database when some default part needs it
+        this.database = builder.database;
+        this.journalWriter = builder.journalWriter != null
+                ? builder.journalWriter : new JournalWriter(database());
+
+        this.accountRepository = builder.accountRepository != null
+                ? builder.accountRepository : new AccountRepository(database());
+        this.authRepository = builder.authRepository != null
+                ? builder.authRepository : new AuthRepository(database());
+        this.customerRepository = builder.customerRepository != null
+                ? builder.customerRepository : new CustomerRepository(database());
+        this.ledgerRepository = builder.ledgerRepository != null
+                ? builder.ledgerRepository : new LedgerRepository(database());
+        this.onboardingRepository = builder.onboardingRepository != null
+                ? builder.onboardingRepository : new OnboardingRepository(database());
+        this.referenceDataRepository = builder.referenceDataRepository != null
+                ? builder.referenceDataRepository : new ReferenceDataRepository(database());
+        this.transactionRepository = builder.transactionRepository != null
+                ? builder.transactionRepository : new TransactionRepository(database(), journalWriter);
+
+        this.referenceData = builder.referenceData != null
+                ? builder.referenceData : new ReferenceData(referenceDataRepository);
+        this.dailySpendCache = builder.dailySpendCache != null
+                ? builder.dailySpendCache : new DailySpendCache(transactionRepository);
+        this.accountNumberAllocator = builder.accountNumberAllocator != null
+                ? builder.accountNumberAllocator : new AccountNumberAllocator(accountRepository);
+        this.passwordHasher = builder.passwordHasher != null
+                ? builder.passwordHasher : new PasswordHasher();
+        this.loginRateLimiter = builder.loginRateLimiter != null
+                ? builder.loginRateLimiter : new LoginRateLimiter();
+        this.sessionStore = builder.sessionStore != null
+                ? builder.sessionStore : new SessionStore(customerRepository, accountRepository);
+
+        this.ledgerService = builder.ledgerService != null
+                ? builder.ledgerService : new LedgerService(ledgerRepository, accountRepository);
+        this.authService = builder.authService != null
+                ? builder.authService : new AuthService(authRepository, passwordHasher, loginRateLimiter);
+        this.customerService = builder.customerService != null
+                ? builder.customerService : new CustomerService(customerRepository, sessionStore, referenceData);
+        this.transactionService = builder.transactionService != null
+                ? builder.transactionService
+                : new TransactionService(transactionRepository, accountRepository, dailySpendCache,
+                                         referenceData, sessionStore);
+        this.accountService = builder.accountService != null
+                ? builder.accountService
+                : new AccountService(accountRepository, transactionRepository, customerService,
+                                     referenceData, accountNumberAllocator, onboardingRepository, sessionStore);
+    }
+
+    /**
+     * Get the shared context, wiring the default graph on first use
+     */
+    public static synchronized AppContext getInstance() {
+        if (instance == null) {
+            instance = builder().build();
+        }
+        return instance;
+    }
+
+    /**
+     * Replace the shared context (tests, alternative wiring)
+     */
+    public static synchronized void setInstance(AppContext context) {
+        instance = context;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private Database database() {
+        return database != null ? database : Database.getInstance();
+    }
+
+    // Getters
+    public Database getDatabase() { return database(); }
+    public JournalWriter getJournalWriter() { return journalWriter; }
+    public AccountRepository getAccountRepository() { return accountRepository; }
+    public AuthRepository getAuthRepository() { return authRepository; }
+    public CustomerRepository getCustomerRepository() { return customerRepository; }
+    public LedgerRepository getLedgerRepository() { return ledgerRepository; }
+    public OnboardingRepository getOnboardingRepository() { return onboardingRepository; }
+    public ReferenceDataRepository getReferenceDataRepository() { return referenceDataRepository; }
+    public TransactionRepository getTransactionRepository() { return transactionRepository; }
+    public ReferenceData getReferenceData() { return referenceData; }
+    public DailySpendCache getDailySpendCache() { return dailySpendCache; }
+    public AccountNumberAllocator getAccountNumberAllocator() { return accountNumberAllocator; }
+    public PasswordHasher getPasswordHasher() { return passwordHasher; }
+    public LoginRateLimiter getLoginRateLimiter() { return loginRateLimiter; }
+    public SessionStore getSessionStore() { return sessionStore; }
+    public LedgerService getLedgerService() { return ledgerService; }
+    public AuthService getAuthService() { return authService; }
+    public CustomerService getCustomerService() { return customerService; }
+    public TransactionService getTransactionService() { return transactionService; }
+    public AccountService getAccountService() { return accountService; }
+
+    /**
+     * Anything left unset is built from the default wiring around the parts that were set
+     */
+    public static class Builder {
+        private Database database;
+        private JournalWriter journalWriter;
+        private AccountRepository accountRepository;
+        private AuthRepository authRepository;
+        private CustomerRepository customerRepository;
+        private LedgerRepository ledgerRepository;
+        private OnboardingRepository onboardingRepository;
+        private ReferenceDataRepository referenceDataRepository;
+        private TransactionRepository transactionRepository;
+        private ReferenceData referenceData;
+        private DailySpendCache dailySpendCache;
+        private AccountNumberAllocator accountNumberAllocator;
+        private PasswordHasher passwordHasher;
+        private LoginRateLimiter loginRateLimiter;
+        private SessionStore sessionStore;
+        private LedgerService ledgerService;
+        private AuthService authService;
+        private CustomerService customerService;
+        private TransactionService transactionService;
+        private AccountService accountService;
+
+        private Builder() {
+        }
+
+        public Builder database(Database database) { this.database = database; return this; }
+        public Builder journalWriter(JournalWriter journalWriter) { this.journalWriter = journalWriter; return this; }
+        public Builder accountRepository(AccountRepository accountRepository) { this.accountRepository = accountRepository; return this; }
+        public Builder authRepository(AuthRepository authRepository) { this.authRepository = authRepository; return this; }
+        public Builder customerRepository(CustomerRepository customerRepository) { this.customerRepository = customerRepository; return this; }
+        public Builder ledgerRepository(LedgerRepository ledgerRepository) { this.ledgerRepository = ledgerRepository; return this; }
+        public Builder onboardingRepository(OnboardingRepository onboardingRepository) { this.onboardingRepository = onboardingRepository; return this; }
+        public Builder referenceDataRepository(ReferenceDataRepository referenceDataRepository) { this.referenceDataRepository = referenceDataRepository; return this; }
+        public Builder transactionRepository(TransactionRepository transactionRepository) { this.transactionRepository = transactionRepository; return this; }
+        public Builder referenceData(ReferenceData referenceData) { this.referenceData = referenceData; return this; }
+        public Builder dailySpendCache(DailySpendCache dailySpendCache) { this.dailySpendCache = dailySpendCache; return this; }
+        public Builder accountNumberAllocator(AccountNumberAllocator accountNumberAllocator) { this.accountNumberAllocator = accountNumberAllocator; return this; }
+        public Builder passwordHasher(PasswordHasher passwordHasher) { this.passwordHasher = passwordHasher; return this; }
+        public Builder loginRateLimiter(LoginRateLimiter loginRateLimiter) { this.loginRateLimiter = loginRateLimiter; return this; }
+        public Builder sessionStore(SessionStore sessionStore) { this.sessionStore = sessionStore; return this; }
+        public Builder ledgerService(LedgerService ledgerService) { this.ledgerService = ledgerService; return this; }
+        public Builder authService(AuthService authService) { this.authService = authService; return this; }
+        public Builder customerService(CustomerService customerService) { this.customerService = customerService; return this; }
+        public Builder transactionService(TransactionService transactionService) { this.transactionService = transactionService; return this; }
+        public Builder accountService(AccountService accountService) { this.accountService = accountService; return this; }
+
+        public AppContext build() {
+            return new AppContext(this);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 // controller/AccountController.java - Enhanced with Initial Deposit
 package controller;
 
+import context.AppContext;
 import model.entity.Account;
 import model.entity.Customer;
 import model.service.AccountService;
+import model.service.SessionStore;
 import view.AccountView;
 
 import java.util.List;
@@ -13,22 +15,26 @@ import java.util.Optional;
 public class AccountController {
     private final AccountService accountService;
     private final AccountView accountView;
+    private SessionStore.Session session;
 
     public AccountController() {
-        this.accountService = new AccountService();
+        AppContext context = AppContext.getInstance();
+        this.accountService = context.getAccountService();
         this.accountView = new AccountView();
     }
 
     /**
      * Main account management handler
-     * @param customer Current customer
+     * @param session Signed-in session; its cached accounts back the menus
      * @return true to continue, false to go back
      */
-    public boolean handleAccountManagement(Customer customer) {
+    public boolean handleAccountManagement(SessionStore.Session session) {
+        Customer customer = session != null ? session.getCustomer().orElse(null) : null;
         if (customer == null) {
             accountView.showErrorMessage("Customer information not found!");
             return false;
         }
+        this.session = session;
 
         while (true) {
             try {
@@ -71,7 +77,7 @@ public class AccountController {
     private void handleViewAccounts(Customer customer) {
         try {
             accountView.showLoading("Loading your accounts");
-            List<Account> accounts = accountService.getCustomerAccounts(customer.getId());
+            List<Account> accounts = session.getAccounts();
 
             accountView.displayAccountsList(accounts);
 
@@ -136,7 +142,7 @@ public class AccountController {
                 accountView.showSuccessMessage("Account created successfully!");
 
                 // Show the newly created account
-                List<Account> accounts = accountService.getCustomerAccounts(customer.getId());
+                List<Account> accounts = session.getAccounts();
                 if (!accounts.isEmpty()) {
                     Account newAccount = accounts.get(accounts.size() - 1); // Get the last created account
                     accountView.showAccountCreationSuccess(
@@ -167,7 +173,7 @@ public class AccountController {
      */
     private void handleAccountDetails(Customer customer) {
         try {
-            List<Account> accounts = accountService.getActiveAccounts(customer.getId());
+            List<Account> accounts = session.getActiveAccounts();
 
             if (accounts.isEmpty()) {
                 accountView.showInfoMessage("You don't have any active accounts.");
@@ -211,7 +217,7 @@ public class AccountController {
      */
     private void handleFreezeUnfreeze(Customer customer) {
         try {
-            List<Account> accounts = accountService.getCustomerAccounts(customer.getId());
+            List<Account> accounts = session.getAccounts();
 
             if (accounts.isEmpty()) {
                 accountView.showInfoMessage("You don't have any accounts to freeze/unfreeze.");
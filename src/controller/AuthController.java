@@ -1,6 +1,7 @@
 // controller/AuthController.java
 package controller;
 
+import context.AppContext;
 import model.entity.User;
 import model.service.AuthService;
 import view.AuthView;
@@ -8,10 +9,20 @@ import view.AuthView;
 public class AuthController {
     private final AuthService authService;
     private final AuthView authView;
+    private final String clientId;
     private User currentUser;
 
     public AuthController() {
-        this.authService = new AuthService();
+        this(null);
+    }
+
+    /**
+     * @param clientId where logins come from (remote address or session id), for throttling
+     */
+    public AuthController(String clientId) {
+        AppContext context = AppContext.getInstance();
+        this.clientId = clientId;
+        this.authService = context.getAuthService();
         this.authView = new AuthView();
         this.currentUser = null;
     }
@@ -62,7 +73,8 @@ public class AuthController {
             authView.showLoading("Authenticating");
             AuthService.AuthResult result = authService.login(
                     credentials.getUsername(),
-                    credentials.getPassword()
+                    credentials.getPassword(),
+                    clientId
             );
 
             if (result.isSuccess()) {
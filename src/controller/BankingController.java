@@ -1,44 +1,56 @@
 // controller/BankingController.java
 package controller;
 
+import context.AppContext;
 import model.entity.Account;
 import model.entity.Customer;
 import model.entity.Transaction;
+import model.repository.TransactionRepository;
 import model.service.AccountService;
+import model.service.LoginRateLimiter;
 import model.service.TransactionService;
-import model.service.CustomerService;
+import model.service.SessionStore;
 import view.BankingView;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 public class BankingController {
+    private static final int HISTORY_PAGE_SIZE = 20;
+
     private final BankingView bankingView;
     private final TransactionService transactionService;
     private final AccountService accountService;
-    private final CustomerService customerService;
+    private final LoginRateLimiter loginRateLimiter;
+    private SessionStore.Session session;
 
     public BankingController() {
+        AppContext context = AppContext.getInstance();
         this.bankingView = new BankingView();
-        this.transactionService = new TransactionService();
-        this.accountService = new AccountService();
-        this.customerService = new CustomerService();
+        this.transactionService = context.getTransactionService();
+        this.accountService = context.getAccountService();
+        this.loginRateLimiter = context.getLoginRateLimiter();
     }
 
     /**
      * Handle banking operations menu
+     * @param session Signed-in session; its cached accounts back the menus
      */
-    public boolean handleBankingOperations(Customer customer) {
+    public boolean handleBankingOperations(SessionStore.Session session) {
+        Customer customer = session != null ? session.getCustomer().orElse(null) : null;
         if (customer == null) {
             bankingView.showErrorMessage("Customer information not found!");
             return false;
         }
+        this.session = session;
 
         // Check if customer has accounts
-        List<Account> customerAccounts = accountService.getCustomerAccounts(customer.getId());
+        List<Account> customerAccounts = session.getAccounts();
         if (customerAccounts.isEmpty()) {
             bankingView.showInfoMessage("You don't have any accounts yet!");
             bankingView.showInfoMessage("Create an account first in Account Management.");
@@ -90,7 +102,7 @@ public class BankingController {
     private void handleDeposit(Customer customer) {
         try {
             // Get active accounts
-            List<Account> activeAccounts = accountService.getActiveAccounts(customer.getId());
+            List<Account> activeAccounts = session.getActiveAccounts();
 
             if (activeAccounts.isEmpty()) {
                 bankingView.showInfoMessage("No active accounts available for deposit!");
@@ -139,14 +151,15 @@ public class BankingController {
 
             // Process deposit
             bankingView.showLoading("Processing deposit");
-            boolean success = transactionService.deposit(
+            TransactionService.TransactionResult result = transactionService.deposit(
                     depositData.getAccountId(),
                     depositData.getAmount(),
                     depositData.getPin(),
                     depositData.getRemark()
             );
+            bankingView.displayDepositResult(result);
 
-            if (success) {
+            if (result.isSuccess()) {
                 bankingView.showSuccessMessage("Deposit completed successfully!");
             } else {
                 bankingView.showErrorMessage("Deposit failed. Please try again.");
@@ -166,7 +179,7 @@ public class BankingController {
     private void handleWithdrawal(Customer customer) {
         try {
             // Get active accounts
-            List<Account> activeAccounts = accountService.getActiveAccounts(customer.getId());
+            List<Account> activeAccounts = session.getActiveAccounts();
 
             if (activeAccounts.isEmpty()) {
                 bankingView.showInfoMessage("No active accounts available for withdrawal!");
@@ -233,14 +246,15 @@ public class BankingController {
 
             // Process withdrawal
             bankingView.showLoading("Processing withdrawal");
-            boolean success = transactionService.withdraw(
+            TransactionService.TransactionResult result = transactionService.withdraw(
                     withdrawalData.getAccountId(),
                     withdrawalData.getAmount(),
                     withdrawalData.getPin(),
                     withdrawalData.getRemark()
             );
+            bankingView.displayWithdrawalResult(result);
 
-            if (success) {
+            if (result.isSuccess()) {
                 bankingView.showSuccessMessage("Withdrawal completed successfully!");
             } else {
                 bankingView.showErrorMessage("Withdrawal failed. Please try again.");
@@ -260,7 +274,7 @@ public class BankingController {
     private void handleTransfer(Customer customer) {
         try {
             // Get active accounts for sending
-            List<Account> activeAccounts = accountService.getActiveAccounts(customer.getId());
+            List<Account> activeAccounts = session.getActiveAccounts();
 
             if (activeAccounts.isEmpty()) {
                 bankingView.showInfoMessage("No active accounts available for transfer!");
@@ -269,7 +283,7 @@ public class BankingController {
             }
 
             // Get all customer accounts (for internal transfers)
-            List<Account> allCustomerAccounts = accountService.getCustomerAccounts(customer.getId());
+            List<Account> allCustomerAccounts = session.getAccounts();
 
             // Get transfer data
             BankingView.TransferData transferData = bankingView.getTransferData(activeAccounts, allCustomerAccounts);
@@ -365,15 +379,16 @@ public class BankingController {
 
         // Process transfer
         bankingView.showLoading("Processing internal transfer");
-        boolean success = transactionService.transfer(
+        TransactionService.TransactionResult result = transactionService.transfer(
                 transferData.getFromAccountId(),
                 transferData.getToAccountId(),
                 transferData.getAmount(),
                 transferData.getPin(),
                 transferData.getRemark()
         );
+        bankingView.displayTransferResult(result);
 
-        if (success) {
+        if (result.isSuccess()) {
             bankingView.showSuccessMessage("Internal transfer completed successfully!");
         } else {
             bankingView.showErrorMessage("Transfer failed. Please try again.");
@@ -467,15 +482,16 @@ public class BankingController {
 
         // Process transfer
         bankingView.showLoading("Processing external transfer");
-        boolean success = transactionService.transfer(
+        TransactionService.TransactionResult result = transactionService.transfer(
                 transferData.getFromAccountId(),
                 toAccount.getId(),
                 transferData.getAmount(),
                 transferData.getPin(),
                 transferData.getRemark()
         );
+        bankingView.displayTransferResult(result);
 
-        if (success) {
+        if (result.isSuccess()) {
             bankingView.showSuccessMessage("External transfer completed successfully!");
         } else {
             bankingView.showErrorMessage("Transfer failed. Please try again.");
@@ -490,20 +506,33 @@ public class BankingController {
     private void handleTransactionHistory(Customer customer) {
         try {
             bankingView.showLoading("Loading transaction history");
-            List<Transaction> transactions = transactionService.getCustomerTransactionHistory(customer.getId());
 
-            bankingView.displayTransactionHistory(transactions);
+            TransactionRepository.PageCursor cursor = null;
+            int pageNumber = 0;
+            int shown = 0;
+            long successfulTransactions = 0;
 
-            if (!transactions.isEmpty()) {
-                System.out.println("\nTotal Transactions: " + transactions.size());
+            while (true) {
+                TransactionRepository.TransactionPage page = transactionService.getCustomerTransactionPage(
+                        customer.getId(), cursor, HISTORY_PAGE_SIZE);
+                pageNumber++;
 
-                // Show transaction summary
-                long successfulTransactions = transactions.stream()
+                bankingView.displayTransactionHistoryPage(page.getTransactions(), pageNumber);
+                shown += page.getTransactions().size();
+                successfulTransactions += page.getTransactions().stream()
                         .filter(Transaction::isSuccessful)
                         .count();
 
+                if (!page.hasMore() || !bankingView.askShowMoreTransactions()) {
+                    break;
+                }
+                cursor = page.getNextCursor();
+            }
+
+            if (shown > 0) {
+                System.out.println("\nTransactions Shown: " + shown);
                 System.out.println("Successful: " + successfulTransactions);
-                System.out.println("Failed/Pending: " + (transactions.size() - successfulTransactions));
+                System.out.println("Failed/Pending: " + (shown - successfulTransactions));
             }
 
             bankingView.waitForEnter();
@@ -519,7 +548,7 @@ public class BankingController {
      */
     private void handleCheckBalance(Customer customer) {
         try {
-            List<Account> activeAccounts = accountService.getActiveAccounts(customer.getId());
+            List<Account> activeAccounts = session.getActiveAccounts();
 
             if (activeAccounts.isEmpty()) {
                 bankingView.showInfoMessage("No active accounts found!");
@@ -571,7 +600,7 @@ public class BankingController {
     private void handleDailyLimitsStatus(Customer customer) {
         try {
             bankingView.showLoading("Loading daily limits status");
-            List<Account> accounts = accountService.getActiveAccounts(customer.getId());
+            List<Account> accounts = session.getActiveAccounts();
 
             Map<Integer, BigDecimal> remainingLimits = new HashMap<>();
 
@@ -599,17 +628,30 @@ public class BankingController {
     }
 
     /**
-     * Validate customer PIN
+     * Validate customer PIN; wrong PINs are throttled per customer
      */
     private boolean validateCustomerPin(Integer customerId, String pin) {
         try {
-            Optional<Customer> customerOpt = customerService.findCustomerById(customerId);
-            if (customerOpt.isEmpty()) {
+            long retryAfterMillis = loginRateLimiter.tryAcquirePin(customerId);
+            if (retryAfterMillis > 0) {
+                bankingView.showErrorMessage("Too many wrong PINs. Try again in " +
+                        ((retryAfterMillis + 999) / 1000) + " seconds.");
+                return false;
+            }
+
+            Optional<Customer> customerOpt = session.getCustomer();
+            if (customerOpt.isEmpty() || !customerOpt.get().getId().equals(customerId)) {
                 return false;
             }
 
             Customer customer = customerOpt.get();
-            return customer.getPin().equals(pin);
+            if (customer.getPin() == null || pin == null ||
+                    !MessageDigest.isEqual(customer.getPin().getBytes(StandardCharsets.UTF_8),
+                                           pin.getBytes(StandardCharsets.UTF_8))) {
+                return false;
+            }
+            loginRateLimiter.releasePin(customerId);
+            return true;
 
         } catch (Exception e) {
             System.err.println("Error validating PIN: " + e.getMessage());
@@ -629,9 +671,7 @@ public class BankingController {
         System.out.print("\nSelect account (1-" + accounts.size() + "): ");
 
         try {
-            int selection = Integer.parseInt(System.console() != null ?
-                    System.console().readLine().trim() :
-                    new java.util.Scanner(System.in).nextLine().trim());
+            int selection = Integer.parseInt(bankingView.readLine().trim());
 
             if (selection >= 1 && selection <= accounts.size()) {
                 return selection - 1;
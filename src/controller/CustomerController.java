@@ -1,23 +1,28 @@
 // controller/CustomerController.java
 package controller;
 
+import context.AppContext;
 import model.entity.Customer;
 import model.entity.User;
 import model.service.CustomerService;
+import model.service.SessionStore;
 import view.CustomerView;
 
 import java.util.Optional;
 
 public class CustomerController {
     private final CustomerService customerService;
+    private final SessionStore sessionStore;
     private final CustomerView customerView;
-    private final AccountController accountController; // Add AccountController
+    private AccountController accountController; // Created on first use
     private Customer currentCustomer;
+    private SessionStore.Session session;
 
     public CustomerController() {
-        this.customerService = new CustomerService();
+        AppContext context = AppContext.getInstance();
+        this.customerService = context.getCustomerService();
+        this.sessionStore = context.getSessionStore();
         this.customerView = new CustomerView();
-        this.accountController = new AccountController(); // Initialize AccountController
         this.currentCustomer = null;
     }
 
@@ -31,8 +36,9 @@ public class CustomerController {
         try {
             // Step 1: Check if customer profile exists
             if (user.getCustomerId() != null) {
-                // Customer ID exists, load customer profile
-                Optional<Customer> customerOpt = customerService.findCustomerById(user.getCustomerId());
+                // Customer ID exists, open a session and load the profile through it
+                session = sessionStore.create(user);
+                Optional<Customer> customerOpt = session.getCustomer();
 
                 if (customerOpt.isPresent()) {
                     currentCustomer = customerOpt.get();
@@ -61,6 +67,7 @@ public class CustomerController {
                     return false;
                 }
 
+                session = sessionStore.create(user, currentCustomer);
                 customerView.showSuccessMessage("Profile linked successfully!");
                 customerView.waitForEnter();
             }
@@ -82,6 +89,8 @@ public class CustomerController {
     private boolean handleCustomerMainMenu() {
         while (true) {
             try {
+                // Cached in the session; reloaded only after a profile change
+                currentCustomer = session.getCustomer().orElse(currentCustomer);
                 int choice = customerView.showCustomerMainMenu(currentCustomer);
 
                 switch (choice) {
@@ -165,7 +174,7 @@ public class CustomerController {
     private void handleAccountManagement() {
         try {
             // Pass control to AccountController
-            accountController.handleAccountManagement(currentCustomer);
+            getAccountController().handleAccountManagement(session);
 
         } catch (Exception e) {
             customerView.showErrorMessage("Error in account management: " + e.getMessage());
@@ -184,7 +193,7 @@ public class CustomerController {
         customerView.showInfoMessage("• Deposit and withdraw funds");
 
         // Show if customer has accounts
-        if (accountController.customerHasAccounts(currentCustomer.getId())) {
+        if (session.hasAccounts()) {
             customerView.showInfoMessage("✅ You have accounts ready for transactions!");
         } else {
             customerView.showInfoMessage("💡 Create an account first in Account Management!");
@@ -203,7 +212,7 @@ public class CustomerController {
         customerView.showInfoMessage("• Schedule recurring payments");
 
         // Show if customer has accounts
-        if (accountController.customerHasAccounts(currentCustomer.getId())) {
+        if (session.hasAccounts()) {
             customerView.showInfoMessage("✅ You have accounts ready for bill payments!");
         } else {
             customerView.showInfoMessage("💡 Create an account first in Account Management!");
@@ -222,7 +231,7 @@ public class CustomerController {
         customerView.showInfoMessage("• Export transaction reports");
 
         // Show if customer has accounts
-        if (accountController.customerHasAccounts(currentCustomer.getId())) {
+        if (session.hasAccounts()) {
             customerView.showInfoMessage("✅ You have accounts ready for history viewing!");
         } else {
             customerView.showInfoMessage("💡 Create an account first in Account Management!");
@@ -241,7 +250,7 @@ public class CustomerController {
         customerView.showInfoMessage("• Emergency account protection");
 
         // Show current account status
-        if (accountController.customerHasAccounts(currentCustomer.getId())) {
+        if (session.hasAccounts()) {
             customerView.showInfoMessage("✅ You have accounts that can be frozen!");
             customerView.showInfoMessage("💡 For now, use Account Management → Freeze/Unfreeze Account");
         } else {
@@ -298,14 +307,25 @@ public class CustomerController {
         return currentCustomer;
     }
 
+    public SessionStore.Session getSession() {
+        return session;
+    }
+
     public void clearCurrentCustomer() {
         this.currentCustomer = null;
+        if (session != null) {
+            sessionStore.invalidate(session.getToken());
+            session = null;
+        }
     }
 
     /**
-     * Get account controller for advanced operations
+     * Get account controller for advanced operations, creating it on first use
      */
     public AccountController getAccountController() {
+        if (accountController == null) {
+            accountController = new AccountController();
+        }
         return accountController;
     }
 }
\ No newline at end of file
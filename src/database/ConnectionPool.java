@@ -0,0 +1,405 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections handed out are proxies - calling close() returns the physical
+ * connection to the pool instead of closing it, so repositories keep using
+ * try-with-resources exactly as before.
+ */
+public class ConnectionPool {
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    // Credentials plus driver settings, applied to every physical connection
+    private final Properties connectionProperties;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+
+    // Most recently returned connection sits at the head, so idle ones drift to the tail
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String url, Properties connectionProperties,
+                          int minSize, int maxSize, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis, int validationTimeoutSeconds) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.connectionProperties = connectionProperties;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // First run warms the pool up to minSize in the background
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+                0, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the borrow timeout for a free slot
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis +
+                        "ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled = takeValidIdleConnection();
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+
+            pooled.markBorrowed();
+            borrowedConnections.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.newLease();
+
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get a snapshot of the pool counters
+     */
+    public PoolStats getStats() {
+        int idle = idleConnections.size();
+        int active = borrowedConnections.size();
+        return new PoolStats(
+                idle + active, active, idle, permits.getQueueLength(), maxSize,
+                borrowCount.get(), createdCount.get(), destroyedCount.get(),
+                timeoutCount.get(), leakCount.get(), totalWaitNanos.get()
+        );
+    }
+
+    /**
+     * Close all idle connections and stop housekeeping.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // ========== INTERNALS ==========
+
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Return a borrowed connection, resetting any state the caller left behind
+     */
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+        try {
+            if (closed || pooled.physical.isClosed()) {
+                destroy(pooled);
+                return;
+            }
+
+            if (!pooled.physical.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (pooled.physical.isReadOnly()) {
+                pooled.physical.setReadOnly(false);
+            }
+            pooled.physical.clearWarnings();
+
+            pooled.markReturned();
+            idleConnections.offerFirst(pooled);
+
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // Already broken, nothing more to do
+        }
+        destroyedCount.incrementAndGet();
+    }
+
+    /**
+     * Evict long-idle connections above minSize, top up to minSize and report leaks
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict from the tail, where the least recently used connections live
+            while (idleConnections.size() + borrowedConnections.size() > minSize) {
+                PooledConnection oldest = idleConnections.peekLast();
+                if (oldest == null || now - oldest.lastReturnedAt < idleTimeoutMillis) {
+                    break;
+                }
+                if (idleConnections.removeLastOccurrence(oldest)) {
+                    destroy(oldest);
+                }
+            }
+
+            while (!closed && idleConnections.size() + borrowedConnections.size() < minSize) {
+                PooledConnection pooled = createConnection();
+                pooled.markReturned();
+                idleConnections.offerLast(pooled);
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : borrowedConnections) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        leakCount.incrementAndGet();
+                        Thread borrower = pooled.borrower;
+                        System.err.println("⚠️ Possible connection leak: connection held for " +
+                                (now - pooled.borrowedAt) + "ms by " + borrower);
+                        // Only taken once a connection is overdue, so borrowing stays cheap
+                        if (borrower != null && borrower.isAlive()) {
+                            for (StackTraceElement frame : borrower.getStackTrace()) {
+                                System.err.println("\tat " + frame);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error during connection pool housekeeping: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Unexpected error during connection pool housekeeping: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool needs for it
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        // Thread that borrowed it; its stack is read only if the borrow looks leaked
+        private volatile Thread borrower;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.lastReturnedAt = System.currentTimeMillis();
+        }
+
+        private void markBorrowed() {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            borrower = Thread.currentThread();
+        }
+
+        private void markReturned() {
+            lastReturnedAt = System.currentTimeMillis();
+            borrower = null;
+        }
+
+        /**
+         * Wrap the physical connection for a single borrow.
+         * Each lease has its own closed flag, so a stale reference cannot
+         * touch the connection after it has been handed to someone else.
+         */
+        private Connection newLease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                case "unwrap":
+                case "isWrapperFor":
+                    break;
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time pool statistics
+     */
+    public static class PoolStats {
+        private final int totalConnections;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int waitingThreads;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long createdCount;
+        private final long destroyedCount;
+        private final long timeoutCount;
+        private final long leakCount;
+        private final long totalWaitNanos;
+
+        public PoolStats(int totalConnections, int activeConnections, int idleConnections,
+                         int waitingThreads, int maxSize, long borrowCount, long createdCount,
+                         long destroyedCount, long timeoutCount, long leakCount, long totalWaitNanos) {
+            this.totalConnections = totalConnections;
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.waitingThreads = waitingThreads;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+            this.timeoutCount = timeoutCount;
+            this.leakCount = leakCount;
+            this.totalWaitNanos = totalWaitNanos;
+        }
+
+        // Getters
+        public int getTotalConnections() { return totalConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getWaitingThreads() { return waitingThreads; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDestroyedCount() { return destroyedCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getLeakCount() { return leakCount; }
+
+        /**
+         * Average time spent waiting for a free slot, in milliseconds
+         */
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("total=%d/%d, active=%d, idle=%d, waiting=%d, borrowed=%d, " +
+                            "created=%d, destroyed=%d, timeouts=%d, leaks=%d, avgWait=%.2fms",
+                    totalConnections, maxSize, activeConnections, idleConnections, waitingThreads,
+                    borrowCount, createdCount, destroyedCount, timeoutCount, leakCount, getAverageWaitMillis());
+        }
+    }
+}
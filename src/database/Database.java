@@ -1,21 +1,38 @@
 package database;
 
+import org.postgresql.PGStatement;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Properties;
 import java.io.InputStream;
 import java.io.IOException;
 
+/**
+ * Database access point.
+ * Connections come from a bounded pool configured in config.properties:
+ * db.pool.minSize, db.pool.maxSize, db.pool.borrowTimeoutMs,
+ * db.pool.idleTimeoutMs, db.pool.leakThresholdMs (0 disables leak detection)
+ * and db.pool.validationTimeoutSec.
+ * Pooled physical connections live for the life of the app, so pgjdbc's
+ * per-connection statement cache survives across borrows. It is tuned with
+ * db.prepareThreshold (executions before a statement is prepared on the
+ * server), db.preparedStatementCacheQueries and db.preparedStatementCacheSizeMiB.
+ */
 public class Database {
+    // Hot-path statements skip the warm-up and use a named server statement right away
+    private static final int HOT_PREPARE_THRESHOLD = 1;
+
     private static Database instance;
     private String url;
     private String username;
     private String password;
+    private ConnectionPool pool;
 
     private Database() {
+        Properties prop = new Properties();
         try (InputStream input = getClass().getClassLoader().getResourceAsStream("config.properties")) {
-            Properties prop = new Properties();
             if (input == null) {
                 throw new IOException("Unable to find config.properties");
             }
@@ -26,6 +43,30 @@ public class Database {
         } catch (IOException ex) {
             ex.printStackTrace();
         }
+
+        Properties connectionProperties = new Properties();
+        if (username != null) {
+            connectionProperties.setProperty("user", username);
+        }
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+        connectionProperties.setProperty("prepareThreshold",
+                String.valueOf(intProperty(prop, "db.prepareThreshold", 3)));
+        connectionProperties.setProperty("preparedStatementCacheQueries",
+                String.valueOf(intProperty(prop, "db.preparedStatementCacheQueries", 256)));
+        connectionProperties.setProperty("preparedStatementCacheSizeMiB",
+                String.valueOf(intProperty(prop, "db.preparedStatementCacheSizeMiB", 5)));
+
+        pool = new ConnectionPool(
+                url, connectionProperties,
+                intProperty(prop, "db.pool.minSize", 2),
+                intProperty(prop, "db.pool.maxSize", 10),
+                longProperty(prop, "db.pool.borrowTimeoutMs", 5_000),
+                longProperty(prop, "db.pool.idleTimeoutMs", 300_000),
+                longProperty(prop, "db.pool.leakThresholdMs", 60_000),
+                intProperty(prop, "db.pool.validationTimeoutSec", 2)
+        );
     }
 
     public static synchronized Database getInstance() {
@@ -36,9 +77,72 @@ public class Database {
     }
 
     /**
-     * Get a fresh database connection each time
+     * Borrow a pooled connection; close() hands it back to the pool
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, username, password);
+        return pool.borrow();
+    }
+
+    /**
+     * Prepare a hot-path statement so the server parses and plans it once per
+     * connection; later executions from the driver's cache only bind and run.
+     * The SQL text must be constant - it is the cache key.
+     */
+    public static PreparedStatement prepareHot(Connection connection, String sql) throws SQLException {
+        return markHot(connection.prepareStatement(sql));
+    }
+
+    /**
+     * Same as prepareHot(Connection, String), returning generated keys
+     */
+    public static PreparedStatement prepareHot(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        return markHot(connection.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    private static PreparedStatement markHot(PreparedStatement statement) throws SQLException {
+        if (statement.isWrapperFor(PGStatement.class)) {
+            statement.unwrap(PGStatement.class).setPrepareThreshold(HOT_PREPARE_THRESHOLD);
+        }
+        return statement;
+    }
+
+    /**
+     * Get current connection pool statistics
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    /**
+     * Close all pooled connections (application shutdown)
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static int intProperty(Properties prop, String key, int defaultValue) {
+        String value = prop.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static long longProperty(Properties prop, String key, long defaultValue) {
+        String value = prop.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
     }
-}
\ No newline at end of file
+}
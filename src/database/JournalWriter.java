@@ -0,0 +1,330 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Group-commit writer for transaction records.
+ * Callers submit postings to a bounded queue; a single writer thread runs
+ * everything queued (up to maxBatchSize, or whatever arrived within
+ * maxDelayMillis of the first posting) on one connection and commits once,
+ * so a burst of postings shares one WAL flush. Each posting runs under its
+ * own savepoint, so a refused or failed posting is undone without touching
+ * the rest of its group. Futures complete only after the group's commit
+ * returns, i.e. once the posting is durable; if the commit itself may or may
+ * not have gone through, they fail with CommitOutcomeUnknownException.
+ * A posting's future can be cancelled only until the writer takes it.
+ * A group that fails unexpectedly fails only its own postings; if the writer
+ * thread itself stops (interrupted, or an Error), everything still queued is
+ * failed and later submissions are refused, so no caller waits on a dead writer.
+ */
+public class JournalWriter {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+    // How often an idle writer checks whether it has been closed
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final Database database;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending<?>> queue;
+    private final Thread writer;
+    private volatile boolean closed = false;
+    // Set once the writer loop has exited, for whatever reason
+    private volatile boolean stopped = false;
+    private volatile Throwable stopCause;
+
+    /**
+     * Work done on the writer's connection; must not commit or roll back itself
+     */
+    @FunctionalInterface
+    public interface Posting<T> {
+        T write(Connection connection) throws SQLException;
+    }
+
+    public JournalWriter(Database database) {
+        this(database, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY_MILLIS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public JournalWriter(Database database, int maxBatchSize, long maxDelayMillis, int queueCapacity) {
+        if (maxBatchSize < 1 || maxDelayMillis < 0 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Invalid journal settings: batch=" + maxBatchSize +
+                    ", delay=" + maxDelayMillis + "ms, capacity=" + queueCapacity);
+        }
+        this.database = database;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.writer = new Thread(this::run, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a posting whose result is always committed
+     * @see #submit(Posting, Predicate)
+     */
+    public <T> CompletableFuture<T> submit(Posting<T> posting) {
+        return submit(posting, result -> true);
+    }
+
+    /**
+     * Queue a posting, blocking while the queue is full.
+     * @param keep whether the posting's result should be committed; if not,
+     *             its statements are rolled back and the result still returned
+     * @return future completed with the result once the group is committed,
+     *         or exceptionally if the posting or the commit failed or the
+     *         writer is closed or has stopped. cancel() succeeds only while
+     *         the posting is still queued; after that it will be written.
+     */
+    public <T> CompletableFuture<T> submit(Posting<T> posting, Predicate<T> keep) {
+        Pending<T> pending = new Pending<>(posting, keep);
+        try {
+            while (!closed && !stopped) {
+                if (queue.offer(pending, IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // The writer may have exited between the check and the offer
+                    if (stopped) {
+                        failQueued();
+                    }
+                    return pending.future;
+                }
+            }
+            pending.future.completeExceptionally(notRunning());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Whether postings are still being accepted and written
+     */
+    public boolean isRunning() {
+        return !closed && !stopped;
+    }
+
+    /**
+     * Stop accepting postings and wait for the queued ones to be committed
+     */
+    public void close() {
+        closed = true;
+        try {
+            writer.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer loop; exits once closed and the queue has been drained, or when
+     * the thread is interrupted or hits an Error
+     */
+    private void run() {
+        List<Pending<?>> group = new ArrayList<>(maxBatchSize);
+        try {
+            while (true) {
+                Pending<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                group.add(first);
+                collect(group);
+                // Skip postings their callers gave up on; the rest can no longer be cancelled
+                group.removeIf(pending -> !pending.future.take());
+                if (group.isEmpty()) {
+                    continue;
+                }
+                try {
+                    flush(group);
+                } catch (RuntimeException e) {
+                    // e.g. no connection available - fail this group and keep going
+                    System.err.println("Error writing journal group of " + group.size() + ": " + e.getMessage());
+                    group.forEach(pending -> pending.future.completeExceptionally(e));
+                }
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopCause = e;
+        } catch (Throwable t) {
+            stopCause = t;
+            throw t;
+        } finally {
+            stopped = true;
+            if (stopCause != null) {
+                System.err.println("Journal writer stopped: " + stopCause);
+            }
+            Throwable failure = notRunning();
+            group.forEach(pending -> pending.future.completeExceptionally(failure));
+            failQueued();
+        }
+    }
+
+    /**
+     * Fail whatever is left in the queue once the writer has exited
+     */
+    private void failQueued() {
+        List<Pending<?>> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            Throwable failure = notRunning();
+            leftover.forEach(pending -> pending.future.completeExceptionally(failure));
+        }
+    }
+
+    private IllegalStateException notRunning() {
+        return stopCause != null
+                ? new IllegalStateException("Journal writer has stopped", stopCause)
+                : new IllegalStateException("Journal writer is closed");
+    }
+
+    /**
+     * Top the group up to maxBatchSize, waiting at most maxDelay past the first posting
+     */
+    private void collect(List<Pending<?>> group) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (group.size() < maxBatchSize) {
+            if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                return;
+            }
+            Pending<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void flush(List<Pending<?>> group) {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (Pending<?> pending : group) {
+                    pending.apply(connection);
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+            commit(connection);
+        } catch (SQLException e) {
+            System.err.println("Error committing journal group of " + group.size() + ": " + e.getMessage());
+            group.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+        group.forEach(Pending::complete);
+    }
+
+    /**
+     * Commit a group; losing the connection during the commit leaves it
+     * unknown whether the commit went through
+     */
+    private static void commit(Connection connection) throws SQLException {
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            String state = e.getSQLState();
+            if (state == null || state.startsWith("08")) {
+                throw new CommitOutcomeUnknownException(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The group's commit was interrupted, so its postings may or may not be durable
+     */
+    public static class CommitOutcomeUnknownException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        private CommitOutcomeUnknownException(SQLException cause) {
+            super("Journal commit outcome unknown: " + cause.getMessage(), cause.getSQLState(), cause);
+        }
+    }
+
+    /**
+     * A queued posting and where its result goes
+     */
+    private static final class Pending<T> {
+        private final Posting<T> posting;
+        private final Predicate<T> keep;
+        private final PostingFuture<T> future = new PostingFuture<>();
+        private T result;
+        private Exception failure;
+
+        private Pending(Posting<T> posting, Predicate<T> keep) {
+            this.posting = posting;
+            this.keep = keep;
+        }
+
+        /**
+         * Run under a savepoint; only errors that break the connection itself propagate
+         */
+        private void apply(Connection connection) throws SQLException {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                result = posting.write(connection);
+                if (!keep.test(result)) {
+                    connection.rollback(savepoint);
+                }
+            } catch (SQLException | RuntimeException e) {
+                failure = e;
+                connection.rollback(savepoint);
+            }
+            connection.releaseSavepoint(savepoint);
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Future of a queued posting; cancellable until the writer takes the posting
+     */
+    private static final class PostingFuture<T> extends CompletableFuture<T> {
+        private static final int QUEUED = 0;
+        private static final int TAKEN = 1;
+        private static final int CANCELLED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        /**
+         * Claim the posting for writing
+         * @return false if it was cancelled first
+         */
+        private boolean take() {
+            return state.compareAndSet(QUEUED, TAKEN);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return state.compareAndSet(QUEUED, CANCELLED) && super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class Account {
     private BigDecimal overLimit = BigDecimal.ZERO;
     private boolean isFreeze = false;
     private boolean isDeleted = false;
+    private boolean isHot = false; // Credits land on sub-balance slots (high-volume receiving accounts)
     private Integer accountTypeId;
     private LocalDate maturityDate; // New field for Fixed accounts
 
@@ -28,7 +28,7 @@ public class Customer {
     private String monthlyIncomeRange;
     private String remark;
     private String pin; // 6-digit banking PIN
-    private Integer customerSegmentId = 1; // Default to Retail segment
+    private Integer customerSegmentId; // Null until saved: CustomerService assigns the default segment
     private boolean isDeleted = false;
 
     /**
@@ -54,7 +54,6 @@ public class Customer {
         this.mainSourceOfIncome = mainSourceOfIncome;
         this.monthlyIncomeRange = monthlyIncomeRange;
         this.pin = pin;
-        this.customerSegmentId = 1; // Default to Retail segment
         this.isDeleted = false;
     }
 
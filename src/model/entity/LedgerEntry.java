@@ -0,0 +1,46 @@
+// model/entity/LedgerEntry.java
+package model.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+    private Long id;
+    private Integer transactionId;      // Reference to transactions - NULL for manual balance adjustments
+    private Integer accountId;          // Account posted to - NULL for the external (cash) side
+    private BigDecimal amount;          // In the account's currency: credits positive, debits negative
+    private BigDecimal exchangeRate;    // Rate applied to the transaction amount to get this amount
+    private LocalDateTime createdAt;
+
+    // Constructor for a new posting
+    public LedgerEntry(Integer transactionId, Integer accountId, BigDecimal amount, BigDecimal exchangeRate) {
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.exchangeRate = exchangeRate;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Static factory methods
+    public static LedgerEntry credit(Integer transactionId, Integer accountId, BigDecimal amount, BigDecimal exchangeRate) {
+        return new LedgerEntry(transactionId, accountId, amount, exchangeRate);
+    }
+
+    public static LedgerEntry debit(Integer transactionId, Integer accountId, BigDecimal amount, BigDecimal exchangeRate) {
+        return new LedgerEntry(transactionId, accountId, amount.negate(), exchangeRate);
+    }
+
+    public boolean isCredit() {
+        return amount != null && amount.signum() > 0;
+    }
+
+    public boolean isDebit() {
+        return amount != null && amount.signum() < 0;
+    }
+}
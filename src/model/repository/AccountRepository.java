@@ -3,7 +3,7 @@ package model.repository;
 
 import database.Database;
 import model.entity.Account;
-import model.entity.AccountType;
+import model.entity.LedgerEntry;
 
 import java.sql.*;
 import java.math.BigDecimal;
@@ -12,10 +12,23 @@ import java.time.LocalDate;
 import java.util.*;
 
 public class AccountRepository {
+    // Credit slots per hot account; more slots spread inbound credits over more rows
+    public static final int HOT_ACCOUNT_SLOTS = 16;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO accounts (customer_id, account_no, account_name, account_currency, 
+                                balance, over_limit, is_freeze, is_deleted, account_type_id, maturity_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
     private final Database database;
 
     public AccountRepository() {
-        this.database = Database.getInstance();
+        this(Database.getInstance());
+    }
+
+    public AccountRepository(Database database) {
+        this.database = database;
     }
 
     // ========== ACCOUNT OPERATIONS ==========
@@ -24,31 +37,10 @@ public class AccountRepository {
      * Create a new account with maturity date support
      */
     public boolean createAccount(Account account) {
-        String sql = """
-            INSERT INTO accounts (customer_id, account_no, account_name, account_currency, 
-                                balance, over_limit, is_freeze, is_deleted, account_type_id, maturity_date)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-
         try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            statement.setInt(1, account.getCustomerId());
-            statement.setString(2, account.getAccountNo());
-            statement.setString(3, account.getAccountName());
-            statement.setString(4, account.getAccountCurrency());
-            statement.setBigDecimal(5, account.getBalance());
-            statement.setBigDecimal(6, account.getOverLimit());
-            statement.setBoolean(7, account.isFreeze());
-            statement.setBoolean(8, account.isDeleted());
-            statement.setInt(9, account.getAccountTypeId());
-
-            // Handle maturity date
-            if (account.getMaturityDate() != null) {
-                statement.setDate(10, Date.valueOf(account.getMaturityDate()));
-            } else {
-                statement.setNull(10, Types.DATE);
-            }
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindAccount(statement, account);
 
             int rowsAffected = statement.executeUpdate();
 
@@ -73,7 +65,9 @@ public class AccountRepository {
      */
     public List<Account> findAccountsByCustomerId(Integer customerId) {
         String sql = """
-            SELECT a.*, at.type as account_type_name, c.full_name as customer_name
+            SELECT a.*, at.type as account_type_name, c.full_name as customer_name,
+                   (SELECT COALESCE(SUM(s.balance), 0) FROM account_balance_slots s
+                    WHERE s.account_id = a.id) as pending_credits
             FROM accounts a
             JOIN account_types at ON a.account_type_id = at.id
             JOIN customers c ON a.customer_id = c.id
@@ -103,7 +97,9 @@ public class AccountRepository {
      */
     public Optional<Account> findAccountByAccountNo(String accountNo) {
         String sql = """
-            SELECT a.*, at.type as account_type_name, c.full_name as customer_name
+            SELECT a.*, at.type as account_type_name, c.full_name as customer_name,
+                   (SELECT COALESCE(SUM(s.balance), 0) FROM account_balance_slots s
+                    WHERE s.account_id = a.id) as pending_credits
             FROM accounts a
             JOIN account_types at ON a.account_type_id = at.id
             JOIN customers c ON a.customer_id = c.id
@@ -130,7 +126,9 @@ public class AccountRepository {
      */
     public Optional<Account> findAccountById(Integer id) {
         String sql = """
-            SELECT a.*, at.type as account_type_name, c.full_name as customer_name
+            SELECT a.*, at.type as account_type_name, c.full_name as customer_name,
+                   (SELECT COALESCE(SUM(s.balance), 0) FROM account_balance_slots s
+                    WHERE s.account_id = a.id) as pending_credits
             FROM accounts a
             JOIN account_types at ON a.account_type_id = at.id
             JOIN customers c ON a.customer_id = c.id
@@ -138,7 +136,7 @@ public class AccountRepository {
             """;
 
         try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = Database.prepareHot(connection, sql)) {
 
             statement.setInt(1, id);
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -153,23 +151,67 @@ public class AccountRepository {
     }
 
     /**
-     * Get all existing account numbers for uniqueness check
+     * Reserve a block of account number sequence values
+     * @return first value of the block; the block size is the sequence increment
      */
-    public Set<String> getAllAccountNumbers() {
-        String sql = "SELECT account_no FROM accounts WHERE is_deleted = false";
-        Set<String> accountNumbers = new HashSet<>();
+    public Optional<Long> reserveAccountNumberBlock() {
+        String sql = "SELECT nextval('account_no_seq')";
 
         try (Connection connection = database.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet resultSet = statement.executeQuery()) {
 
-            while (resultSet.next()) {
-                accountNumbers.add(resultSet.getString("account_no"));
+            if (resultSet.next()) {
+                return Optional.of(resultSet.getLong(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reserving account numbers: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Check if an account number is already taken (including deleted accounts)
+     */
+    public boolean accountNumberExists(String accountNo) {
+        String sql = "SELECT 1 FROM accounts WHERE account_no = ? LIMIT 1";
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setString(1, accountNo);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking account number existence: " + e.getMessage());
+            // Treat as taken so the caller moves on to another number
+            return true;
+        }
+    }
+
+    /**
+     * Find which of the given account numbers are already taken (including deleted accounts)
+     */
+    public Set<String> findExistingAccountNumbers(Collection<String> accountNumbers) {
+        String sql = "SELECT account_no FROM accounts WHERE account_no = ANY(?)";
+        Set<String> existing = new HashSet<>();
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setArray(1, connection.createArrayOf("varchar", accountNumbers.toArray()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    existing.add(resultSet.getString("account_no"));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting all account numbers: " + e.getMessage());
+            System.err.println("Error checking existing account numbers: " + e.getMessage());
+            // Treat all as taken so the caller allocates fresh ones
+            existing.addAll(accountNumbers);
         }
-        return accountNumbers;
+        return existing;
     }
 
     /**
@@ -207,19 +249,61 @@ public class AccountRepository {
     }
 
     /**
-     * Update account balance
+     * Update account balance.
+     * The difference is posted to the ledger as a manual adjustment in the same commit.
      */
     public boolean updateBalance(String accountNo, BigDecimal newBalance) {
-        String sql = "UPDATE accounts SET balance = ? WHERE account_no = ? AND is_deleted = false";
+        return overwriteBalance("account_no", accountNo, newBalance);
+    }
 
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+    /**
+     * Update account balance by account ID.
+     * The difference is posted to the ledger as a manual adjustment in the same commit.
+     */
+    public boolean updateBalanceById(Integer accountId, BigDecimal newBalance) {
+        return overwriteBalance("id", accountId, newBalance);
+    }
 
-            statement.setBigDecimal(1, newBalance);
-            statement.setString(2, accountNo);
+    private boolean overwriteBalance(String keyColumn, Object key, BigDecimal newBalance) {
+        String selectSql = "SELECT id, balance FROM accounts WHERE " + keyColumn + " = ? AND is_deleted = false FOR UPDATE";
+        String updateSql = "UPDATE accounts SET balance = ? WHERE id = ?";
+
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement select = connection.prepareStatement(selectSql);
+                 PreparedStatement update = connection.prepareStatement(updateSql)) {
+
+                select.setObject(1, key);
+                Integer accountId;
+                BigDecimal oldBalance;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    if (!resultSet.next()) {
+                        connection.rollback();
+                        return false;
+                    }
+                    accountId = resultSet.getInt("id");
+                    oldBalance = resultSet.getBigDecimal("balance");
+                }
+                // Pending hot-account credits are part of the balance being replaced
+                oldBalance = oldBalance.add(foldHotCredits(connection, accountId));
 
-            return statement.executeUpdate() > 0;
+                update.setBigDecimal(1, newBalance);
+                update.setInt(2, accountId);
+                update.executeUpdate();
+
+                BigDecimal difference = newBalance.subtract(oldBalance);
+                if (difference.signum() != 0) {
+                    LedgerRepository.insertEntries(connection,
+                            List.of(new LedgerEntry(null, accountId, difference, BigDecimal.ONE)));
+                }
+
+                connection.commit();
+                return true;
 
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating account balance: " + e.getMessage());
             return false;
@@ -227,21 +311,91 @@ public class AccountRepository {
     }
 
     /**
-     * Update account balance by account ID
+     * Move an account's slot credits into its main balance.
+     * Touches nothing (and locks nothing on accounts) when there are no slots.
+     * @return amount folded
      */
-    public boolean updateBalanceById(Integer accountId, BigDecimal newBalance) {
-        String sql = "UPDATE accounts SET balance = ? WHERE id = ? AND is_deleted = false";
-
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+    static BigDecimal foldHotCredits(Connection connection, Integer accountId) throws SQLException {
+        String sql = """
+            WITH folded AS (
+                DELETE FROM account_balance_slots WHERE account_id = ? RETURNING balance
+            ), total AS (
+                SELECT SUM(balance) AS amount FROM folded
+            )
+            UPDATE accounts SET balance = balance + total.amount
+            FROM total
+            WHERE id = ? AND total.amount IS NOT NULL
+            RETURNING total.amount
+            """;
 
-            statement.setBigDecimal(1, newBalance);
+        try (PreparedStatement statement = Database.prepareHot(connection, sql)) {
+            statement.setInt(1, accountId);
             statement.setInt(2, accountId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getBigDecimal(1) : BigDecimal.ZERO;
+            }
+        }
+    }
 
-            return statement.executeUpdate() > 0;
+    /**
+     * Fold slot credits of every hot account into its main balance, one account per commit
+     * @return number of accounts folded
+     */
+    public int foldAllHotCredits() {
+        String sql = "SELECT DISTINCT account_id FROM account_balance_slots";
+
+        int folded = 0;
+        try (Connection connection = database.getConnection()) {
+            List<Integer> accountIds = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    accountIds.add(resultSet.getInt(1));
+                }
+            }
 
+            for (Integer accountId : accountIds) {
+                if (foldHotCredits(connection, accountId).signum() != 0) {
+                    folded++;
+                }
+            }
         } catch (SQLException e) {
-            System.err.println("Error updating account balance by ID: " + e.getMessage());
+            System.err.println("Error folding hot account credits: " + e.getMessage());
+        }
+        return folded;
+    }
+
+    /**
+     * Turn hot account mode on or off.
+     * Turning it off folds pending slot credits back into the balance in the same commit.
+     */
+    public boolean updateHotStatus(String accountNo, boolean isHot) {
+        String sql = "UPDATE accounts SET is_hot = ? WHERE account_no = ? AND is_deleted = false RETURNING id";
+
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setBoolean(1, isHot);
+                statement.setString(2, accountNo);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        connection.rollback();
+                        return false;
+                    }
+                    if (!isHot) {
+                        foldHotCredits(connection, resultSet.getInt(1));
+                    }
+                }
+                connection.commit();
+                return true;
+
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating account hot status: " + e.getMessage());
             return false;
         }
     }
@@ -266,81 +420,49 @@ public class AccountRepository {
         }
     }
 
-    // ========== ACCOUNT TYPE OPERATIONS ==========
-
     /**
-     * Get all account types
+     * Insert accounts as one JDBC batch on a caller-managed connection, setting generated IDs
      */
-    public List<AccountType> findAllAccountTypes() {
-        String sql = "SELECT * FROM account_types WHERE is_deleted = false ORDER BY id";
-        List<AccountType> accountTypes = new ArrayList<>();
-
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet resultSet = statement.executeQuery()) {
-
-            while (resultSet.next()) {
-                AccountType accountType = new AccountType();
-                accountType.setId(resultSet.getInt("id"));
-                accountType.setType(resultSet.getString("type"));
-                accountType.setDeleted(resultSet.getBoolean("is_deleted"));
-                accountTypes.add(accountType);
-            }
-
-        } catch (SQLException e) {
-            System.err.println("Error finding all account types: " + e.getMessage());
+    static void insertBatch(Connection connection, List<Account> accounts) throws SQLException {
+        if (accounts.isEmpty()) {
+            return;
         }
-        return accountTypes;
-    }
 
-    /**
-     * Find account type by ID
-     */
-    public Optional<AccountType> findAccountTypeById(Integer id) {
-        String sql = "SELECT * FROM account_types WHERE id = ? AND is_deleted = false";
-
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+            for (Account account : accounts) {
+                bindAccount(statement, account);
+                statement.addBatch();
+            }
+            statement.executeBatch();
 
-            statement.setInt(1, id);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    AccountType accountType = new AccountType();
-                    accountType.setId(resultSet.getInt("id"));
-                    accountType.setType(resultSet.getString("type"));
-                    accountType.setDeleted(resultSet.getBoolean("is_deleted"));
-                    return Optional.of(accountType);
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Account account : accounts) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated key for account " + account.getAccountNo());
+                    }
+                    account.setId(generatedKeys.getInt(1));
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding account type by ID: " + e.getMessage());
         }
-        return Optional.empty();
     }
 
-    /**
-     * Find account type by type name
-     */
-    public Optional<AccountType> findAccountTypeByName(String typeName) {
-        String sql = "SELECT * FROM account_types WHERE LOWER(type) = LOWER(?) AND is_deleted = false";
-
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+    private static void bindAccount(PreparedStatement statement, Account account) throws SQLException {
+        statement.setInt(1, account.getCustomerId());
+        statement.setString(2, account.getAccountNo());
+        statement.setString(3, account.getAccountName());
+        statement.setString(4, account.getAccountCurrency());
+        statement.setBigDecimal(5, account.getBalance());
+        statement.setBigDecimal(6, account.getOverLimit());
+        statement.setBoolean(7, account.isFreeze());
+        statement.setBoolean(8, account.isDeleted());
+        statement.setInt(9, account.getAccountTypeId());
 
-            statement.setString(1, typeName);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    AccountType accountType = new AccountType();
-                    accountType.setId(resultSet.getInt("id"));
-                    accountType.setType(resultSet.getString("type"));
-                    accountType.setDeleted(resultSet.getBoolean("is_deleted"));
-                    return Optional.of(accountType);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error finding account type by name: " + e.getMessage());
+        // Handle maturity date
+        if (account.getMaturityDate() != null) {
+            statement.setDate(10, Date.valueOf(account.getMaturityDate()));
+        } else {
+            statement.setNull(10, Types.DATE);
         }
-        return Optional.empty();
     }
 
     /**
@@ -353,10 +475,12 @@ public class AccountRepository {
         account.setAccountNo(resultSet.getString("account_no"));
         account.setAccountName(resultSet.getString("account_name"));
         account.setAccountCurrency(resultSet.getString("account_currency"));
-        account.setBalance(resultSet.getBigDecimal("balance"));
+        // Hot accounts hold not-yet-folded credits in their slots
+        account.setBalance(resultSet.getBigDecimal("balance").add(resultSet.getBigDecimal("pending_credits")));
         account.setOverLimit(resultSet.getBigDecimal("over_limit"));
         account.setFreeze(resultSet.getBoolean("is_freeze"));
         account.setDeleted(resultSet.getBoolean("is_deleted"));
+        account.setHot(resultSet.getBoolean("is_hot"));
         account.setAccountTypeId(resultSet.getInt("account_type_id"));
 
         // Handle maturity date
@@ -11,7 +11,11 @@ public class AuthRepository {
     private final Database database;
 
     public AuthRepository() {
-        this.database = Database.getInstance();
+        this(Database.getInstance());
+    }
+
+    public AuthRepository(Database database) {
+        this.database = database;
     }
 
     /**
@@ -21,7 +25,7 @@ public class AuthRepository {
         String sql = "SELECT * FROM users WHERE username = ? AND is_deleted = false";
 
         try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+             PreparedStatement statement = Database.prepareHot(connection, sql)) {
 
             statement.setString(1, username);
 
@@ -107,31 +111,78 @@ public class AuthRepository {
     }
 
     /**
-     * Update failed login attempts
+     * Replace a user's password hash (rehash on login).
+     * Only applies if the hash is still the one that was verified, so a
+     * concurrent password change is never overwritten.
      */
-    public boolean updateFailedAttempts(String username, int attempts, boolean isLocked) {
-        String sql = "UPDATE users SET failed_attempts = ?, is_locked = ? WHERE username = ? AND is_deleted = false";
+    public boolean updatePasswordHash(Integer userId, String oldHash, String newHash) {
+        String sql = "UPDATE users SET password = ? WHERE id = ? AND password = ? AND is_deleted = false";
 
         try (Connection connection = database.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
-            statement.setInt(1, attempts);
-            statement.setBoolean(2, isLocked);
-            statement.setString(3, username);
+            statement.setString(1, newHash);
+            statement.setInt(2, userId);
+            statement.setString(3, oldHash);
 
             return statement.executeUpdate() > 0;
 
         } catch (SQLException e) {
-            System.err.println("Error updating failed attempts: " + e.getMessage());
+            System.err.println("Error updating password hash: " + e.getMessage());
             return false;
         }
     }
 
     /**
-     * Reset failed attempts (successful login)
+     * Count a failed login and lock the user once maxAttempts is reached, in one statement.
+     * The row lock serialises concurrent bad attempts, so none can slip past the limit.
+     * @return attempts and lock state after this one; ALREADY_LOCKED if the user
+     *         was already locked (or no longer exists), ERROR if it could not be recorded
      */
-    public boolean resetFailedAttempts(String username) {
-        return updateFailedAttempts(username, 0, false);
+    public FailedAttempt recordFailedAttempt(Integer userId, int maxAttempts) {
+        String sql = """
+            UPDATE users
+            SET failed_attempts = failed_attempts + 1,
+                is_locked = failed_attempts + 1 >= ?
+            WHERE id = ? AND is_locked = false AND is_deleted = false
+            RETURNING failed_attempts, is_locked
+            """;
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = Database.prepareHot(connection, sql)) {
+
+            statement.setInt(1, maxAttempts);
+            statement.setInt(2, userId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return FailedAttempt.counted(resultSet.getInt("failed_attempts"),
+                            resultSet.getBoolean("is_locked"));
+                }
+                return FailedAttempt.alreadyLocked();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error recording failed attempt: " + e.getMessage());
+            return FailedAttempt.error();
+        }
+    }
+
+    /**
+     * Reset failed attempts after a successful login; writes nothing if already zero
+     */
+    public boolean clearFailedAttempts(Integer userId) {
+        String sql = "UPDATE users SET failed_attempts = 0 WHERE id = ? AND failed_attempts <> 0 AND is_deleted = false";
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setInt(1, userId);
+            return statement.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error clearing failed attempts: " + e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -195,4 +246,39 @@ public class AuthRepository {
 
         return user;
     }
-}
\ No newline at end of file
+
+    /**
+     * Failed-attempt state after a bad password
+     */
+    public static class FailedAttempt {
+        public enum Status {
+            COUNTED, ALREADY_LOCKED, ERROR
+        }
+
+        private final Status status;
+        private final int attempts;
+        private final boolean locked;
+
+        private FailedAttempt(Status status, int attempts, boolean locked) {
+            this.status = status;
+            this.attempts = attempts;
+            this.locked = locked;
+        }
+
+        public static FailedAttempt counted(int attempts, boolean locked) {
+            return new FailedAttempt(Status.COUNTED, attempts, locked);
+        }
+
+        public static FailedAttempt alreadyLocked() {
+            return new FailedAttempt(Status.ALREADY_LOCKED, 0, true);
+        }
+
+        public static FailedAttempt error() {
+            return new FailedAttempt(Status.ERROR, 0, false);
+        }
+
+        public Status getStatus() { return status; }
+        public int getAttempts() { return attempts; }
+        public boolean isLocked() { return locked; }
+    }
+}
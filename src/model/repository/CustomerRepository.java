@@ -3,25 +3,19 @@ package model.repository;
 
 import database.Database;
 import model.entity.Customer;
+import org.postgresql.util.PSQLException;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class CustomerRepository {
-    private final Database database;
-
-    public CustomerRepository() {
-        this.database = Database.getInstance();
-    }
-
-    /**
-     * Create a new customer profile
-     */
-    public boolean create(Customer customer) {
-        String sql = """
+    private static final String INSERT_SQL = """
             INSERT INTO customers (full_name, dob, gender, address, city_or_province, 
                                  country, zip_code, phone_number, email, employment_type, 
                                  company_name, position, main_source_of_income, 
@@ -29,27 +23,39 @@ public class CustomerRepository {
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
+    // Unique indexes over live customers (schema version 8)
+    private static final String PHONE_NUMBER_INDEX = "uq_customers_phone_number";
+    private static final String EMAIL_INDEX = "uq_customers_email";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    /**
+     * Outcome of creating or updating a customer
+     */
+    public enum SaveResult {
+        SUCCESS, PHONE_NUMBER_EXISTS, EMAIL_EXISTS, NOT_FOUND, ERROR
+    }
+
+    private final Database database;
+
+    public CustomerRepository() {
+        this(Database.getInstance());
+    }
+
+    public CustomerRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Create a new customer profile.
+     * Phone number and email uniqueness is enforced by unique indexes, so a
+     * duplicate costs no extra round trip and concurrent registrations can't
+     * both get in.
+     */
+    public SaveResult create(Customer customer) {
         try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            statement.setString(1, customer.getFullName());
-            statement.setDate(2, Date.valueOf(customer.getDob()));
-            statement.setString(3, customer.getGender());
-            statement.setString(4, customer.getAddress());
-            statement.setString(5, customer.getCityOrProvince());
-            statement.setString(6, customer.getCountry());
-            statement.setString(7, customer.getZipCode());
-            statement.setString(8, customer.getPhoneNumber());
-            statement.setString(9, customer.getEmail());
-            statement.setString(10, customer.getEmploymentType());
-            statement.setString(11, customer.getCompanyName());
-            statement.setString(12, customer.getPosition());
-            statement.setString(13, customer.getMainSourceOfIncome());
-            statement.setString(14, customer.getMonthlyIncomeRange());
-            statement.setString(15, customer.getRemark());
-            statement.setString(16, customer.getPin());
-            statement.setInt(17, customer.getCustomerSegmentId());
-            statement.setBoolean(18, customer.isDeleted());
+            bindCustomer(statement, customer);
 
             int rowsAffected = statement.executeUpdate();
 
@@ -58,15 +64,19 @@ public class CustomerRepository {
                 try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         customer.setId(generatedKeys.getInt(1));
-                        return true;
+                        return SaveResult.SUCCESS;
                     }
                 }
             }
-            return false;
+            return SaveResult.ERROR;
 
         } catch (SQLException e) {
+            SaveResult duplicate = duplicateContact(e);
+            if (duplicate != null) {
+                return duplicate;
+            }
             System.err.println("Error creating customer: " + e.getMessage());
-            return false;
+            return SaveResult.ERROR;
         }
     }
 
@@ -136,7 +146,7 @@ public class CustomerRepository {
     /**
      * Update customer information
      */
-    public boolean update(Customer customer) {
+    public SaveResult update(Customer customer) {
         String sql = """
             UPDATE customers SET full_name = ?, dob = ?, gender = ?, address = ?, 
                                city_or_province = ?, country = ?, zip_code = ?, 
@@ -169,70 +179,37 @@ public class CustomerRepository {
             statement.setInt(17, customer.getCustomerSegmentId());
             statement.setInt(18, customer.getId());
 
-            return statement.executeUpdate() > 0;
+            return statement.executeUpdate() > 0 ? SaveResult.SUCCESS : SaveResult.NOT_FOUND;
 
         } catch (SQLException e) {
+            SaveResult duplicate = duplicateContact(e);
+            if (duplicate != null) {
+                return duplicate;
+            }
             System.err.println("Error updating customer: " + e.getMessage());
-            return false;
+            return SaveResult.ERROR;
         }
     }
 
     /**
-     * Check if phone number exists (excluding specific customer)
+     * Map a unique violation on a contact index to its result, or null for any other error
      */
-    public boolean phoneNumberExists(String phoneNumber, Integer excludeCustomerId) {
-        String sql = "SELECT COUNT(*) FROM customers WHERE phone_number = ? AND is_deleted = false";
-
-        if (excludeCustomerId != null) {
-            sql += " AND id != ?";
+    private static SaveResult duplicateContact(SQLException e) {
+        if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+            return null;
         }
-
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-
-            statement.setString(1, phoneNumber);
-            if (excludeCustomerId != null) {
-                statement.setInt(2, excludeCustomerId);
-            }
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking phone number existence: " + e.getMessage());
+        if (!(e instanceof PSQLException psqlException) || psqlException.getServerErrorMessage() == null) {
+            return null;
         }
-        return false;
-    }
+        String constraint = psqlException.getServerErrorMessage().getConstraint();
 
-    /**
-     * Check if email exists (excluding specific customer)
-     */
-    public boolean emailExists(String email, Integer excludeCustomerId) {
-        String sql = "SELECT COUNT(*) FROM customers WHERE email = ? AND is_deleted = false";
-
-        if (excludeCustomerId != null) {
-            sql += " AND id != ?";
+        if (PHONE_NUMBER_INDEX.equals(constraint)) {
+            return SaveResult.PHONE_NUMBER_EXISTS;
         }
-
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-
-            statement.setString(1, email);
-            if (excludeCustomerId != null) {
-                statement.setInt(2, excludeCustomerId);
-            }
-
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt(1) > 0;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error checking email existence: " + e.getMessage());
+        if (EMAIL_INDEX.equals(constraint)) {
+            return SaveResult.EMAIL_EXISTS;
         }
-        return false;
+        return null;
     }
 
     /**
@@ -274,6 +251,85 @@ public class CustomerRepository {
         }
     }
 
+    /**
+     * Insert customers as one JDBC batch on a caller-managed connection, setting generated IDs
+     */
+    static void insertBatch(Connection connection, List<Customer> customers) throws SQLException {
+        if (customers.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+            for (Customer customer : customers) {
+                bindCustomer(statement, customer);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Customer customer : customers) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated key for customer " + customer.getFullName());
+                    }
+                    customer.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Find which of the given phone numbers and emails are already registered
+     */
+    public Set<String> findExistingContacts(Collection<String> phoneNumbers, Collection<String> emails) {
+        String sql = """
+            SELECT phone_number, email FROM customers
+            WHERE (phone_number = ANY(?) OR email = ANY(?)) AND is_deleted = false
+            """;
+        Set<String> phoneSet = new HashSet<>(phoneNumbers);
+        Set<String> emailSet = new HashSet<>(emails);
+        Set<String> existing = new HashSet<>();
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setArray(1, connection.createArrayOf("varchar", phoneSet.toArray()));
+            statement.setArray(2, connection.createArrayOf("varchar", emailSet.toArray()));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String phoneNumber = resultSet.getString("phone_number");
+                    String email = resultSet.getString("email");
+                    if (phoneSet.contains(phoneNumber)) existing.add(phoneNumber);
+                    if (emailSet.contains(email)) existing.add(email);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking existing customer contacts: " + e.getMessage());
+        }
+        return existing;
+    }
+
+    private static void bindCustomer(PreparedStatement statement, Customer customer) throws SQLException {
+        statement.setString(1, customer.getFullName());
+        statement.setDate(2, Date.valueOf(customer.getDob()));
+        statement.setString(3, customer.getGender());
+        statement.setString(4, customer.getAddress());
+        statement.setString(5, customer.getCityOrProvince());
+        statement.setString(6, customer.getCountry());
+        statement.setString(7, customer.getZipCode());
+        statement.setString(8, customer.getPhoneNumber());
+        statement.setString(9, customer.getEmail());
+        statement.setString(10, customer.getEmploymentType());
+        statement.setString(11, customer.getCompanyName());
+        statement.setString(12, customer.getPosition());
+        statement.setString(13, customer.getMainSourceOfIncome());
+        statement.setString(14, customer.getMonthlyIncomeRange());
+        statement.setString(15, customer.getRemark());
+        statement.setString(16, customer.getPin());
+        statement.setInt(17, customer.getCustomerSegmentId());
+        statement.setBoolean(18, customer.isDeleted());
+    }
+
     /**
      * Map ResultSet to Customer entity
      */
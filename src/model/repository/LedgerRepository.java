@@ -0,0 +1,279 @@
+// model/repository/LedgerRepository.java
+package model.repository;
+
+import database.Database;
+import model.entity.LedgerEntry;
+import model.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only ledger of debit/credit postings.
+ * Every money movement writes its postings in the same commit as its
+ * transactions row; rows are never updated or deleted (a trigger rejects it).
+ * An account's ledger balance is its latest checkpoint plus the postings
+ * after it, and the stored balance (accounts.balance plus any hot-account
+ * slots) is expected to match it. The balance update commits just after its
+ * postings, so a movement in flight can show up as a short-lived mismatch.
+ */
+public class LedgerRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO ledger_entries (transaction_id, account_id, amount, exchange_rate, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    // Journal transactions are short; a writer still open after this is left for the next run
+    private static final long WATERMARK_WAIT_MILLIS = 5_000;
+    private static final long WATERMARK_POLL_MILLIS = 20;
+
+    private final Database database;
+
+    public LedgerRepository() {
+        this(Database.getInstance());
+    }
+
+    public LedgerRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Get an account's balance as derived from the ledger
+     */
+    public Optional<BigDecimal> findLedgerBalance(Integer accountId) {
+        String sql = """
+            SELECT COALESCE(c.balance, 0) + COALESCE((
+                       SELECT SUM(e.amount) FROM ledger_entries e
+                       WHERE e.account_id = a.id AND e.id > COALESCE(c.last_entry_id, 0)
+                   ), 0)
+            FROM accounts a
+            LEFT JOIN balance_checkpoints c ON c.account_id = a.id
+            WHERE a.id = ?
+            """;
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setInt(1, accountId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(resultSet.getBigDecimal(1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding ledger balance: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Fold postings made since each account's last checkpoint into a new checkpoint.
+     * No lock is taken on ledger_entries. Ids are drawn before commit, so a
+     * posting with a low id can still be in flight when a higher one is already
+     * visible; the checkpoint therefore only goes up to a watermark: the last
+     * id drawn so far, once every transaction that was running when it was read
+     * has finished. Postings are always written after their transaction has made
+     * another change, so any transaction holding an id up to the watermark
+     * already had an xid by then.
+     * @return number of accounts checkpointed, or -1 on error
+     */
+    public int checkpointBalances() {
+        String sql = """
+            INSERT INTO balance_checkpoints (account_id, last_entry_id, balance, checkpointed_at)
+            SELECT e.account_id, MAX(e.id), COALESCE(c.balance, 0) + SUM(e.amount), CURRENT_TIMESTAMP
+            FROM ledger_entries e
+            LEFT JOIN balance_checkpoints c ON c.account_id = e.account_id
+            WHERE e.account_id IS NOT NULL AND e.id > COALESCE(c.last_entry_id, 0) AND e.id <= ?
+            GROUP BY e.account_id, c.balance
+            ON CONFLICT (account_id) DO UPDATE
+                SET last_entry_id = EXCLUDED.last_entry_id,
+                    balance = EXCLUDED.balance,
+                    checkpointed_at = EXCLUDED.checkpointed_at
+                WHERE balance_checkpoints.last_entry_id < EXCLUDED.last_entry_id
+            """;
+
+        try (Connection connection = database.getConnection()) {
+            long watermark = settledWatermark(connection);
+            if (watermark < 0) {
+                System.err.println("Checkpoint skipped: ledger writers did not settle in time");
+                return 0;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, watermark);
+                return statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checkpointing balances: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Read the last ledger id drawn, then wait until every transaction that
+     * could be holding an id up to it has committed or rolled back
+     * @return the watermark, or -1 if writers were still running after WATERMARK_WAIT_MILLIS
+     */
+    private static long settledWatermark(Connection connection) throws SQLException {
+        long watermark;
+        String horizon;
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT last_value, is_called FROM ledger_entries_id_seq")) {
+                resultSet.next();
+                watermark = resultSet.getBoolean("is_called") ? resultSet.getLong("last_value") : 0;
+            }
+            // Taken after the read above, so it covers every xid that drew an id up to the watermark
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT pg_snapshot_xmax(pg_current_snapshot())::text")) {
+                resultSet.next();
+                horizon = resultSet.getString(1);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WATERMARK_WAIT_MILLIS);
+        try (PreparedStatement settled = connection.prepareStatement(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot()) >= ?::xid8")) {
+            settled.setString(1, horizon);
+            while (true) {
+                try (ResultSet resultSet = settled.executeQuery()) {
+                    resultSet.next();
+                    if (resultSet.getBoolean(1)) {
+                        return watermark;
+                    }
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    return -1;
+                }
+                try {
+                    Thread.sleep(WATERMARK_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare every account's stored balance with its ledger balance.
+     * One pass over accounts and the postings since their checkpoints.
+     */
+    public List<BalanceMismatch> findBalanceMismatches() {
+        String sql = """
+            SELECT a.id, a.account_no,
+                   a.balance + COALESCE(s.pending, 0) AS balance,
+                   COALESCE(c.balance, 0) + COALESCE(SUM(e.amount), 0) AS ledger_balance
+            FROM accounts a
+            LEFT JOIN (SELECT account_id, SUM(balance) AS pending FROM account_balance_slots GROUP BY account_id) s
+                   ON s.account_id = a.id
+            LEFT JOIN balance_checkpoints c ON c.account_id = a.id
+            LEFT JOIN ledger_entries e ON e.account_id = a.id AND e.id > COALESCE(c.last_entry_id, 0)
+            GROUP BY a.id, a.account_no, a.balance, s.pending, c.balance
+            HAVING a.balance + COALESCE(s.pending, 0) <> COALESCE(c.balance, 0) + COALESCE(SUM(e.amount), 0)
+            ORDER BY a.id
+            """;
+
+        List<BalanceMismatch> mismatches = new ArrayList<>();
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                mismatches.add(new BalanceMismatch(
+                        resultSet.getInt("id"),
+                        resultSet.getString("account_no"),
+                        resultSet.getBigDecimal("balance"),
+                        resultSet.getBigDecimal("ledger_balance")));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reconciling balances: " + e.getMessage());
+        }
+        return mismatches;
+    }
+
+    /**
+     * Append postings as one JDBC batch on a caller-managed connection
+     */
+    static void insertEntries(Connection connection, List<LedgerEntry> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement statement = Database.prepareHot(connection, INSERT_SQL)) {
+            for (LedgerEntry entry : entries) {
+                if (entry.getTransactionId() != null) {
+                    statement.setInt(1, entry.getTransactionId());
+                } else {
+                    statement.setNull(1, Types.INTEGER);
+                }
+                if (entry.getAccountId() != null) {
+                    statement.setInt(2, entry.getAccountId());
+                } else {
+                    statement.setNull(2, Types.INTEGER);
+                }
+                statement.setBigDecimal(3, entry.getAmount());
+                statement.setBigDecimal(4, entry.getExchangeRate());
+                statement.setTimestamp(5, Timestamp.valueOf(entry.getCreatedAt()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Postings for a cash deposit: the account is credited, the external side debited
+     */
+    static List<LedgerEntry> depositEntries(Transaction deposit) {
+        return List.of(
+                LedgerEntry.credit(deposit.getId(), deposit.getSenderId(), deposit.getAmount(), BigDecimal.ONE),
+                LedgerEntry.debit(deposit.getId(), null, deposit.getAmount(), BigDecimal.ONE));
+    }
+
+    /**
+     * Postings for a cash withdrawal: the account is debited, the external side credited
+     */
+    static List<LedgerEntry> withdrawalEntries(Transaction withdrawal) {
+        return List.of(
+                LedgerEntry.debit(withdrawal.getId(), withdrawal.getSenderId(), withdrawal.getAmount(), BigDecimal.ONE),
+                LedgerEntry.credit(withdrawal.getId(), null, withdrawal.getAmount(), BigDecimal.ONE));
+    }
+
+    /**
+     * Postings for a transfer; the credit leg is in the receiver's currency
+     */
+    static List<LedgerEntry> transferEntries(Transaction transfer, BigDecimal creditAmount, BigDecimal exchangeRate) {
+        return List.of(
+                LedgerEntry.debit(transfer.getId(), transfer.getSenderId(), transfer.getAmount(), BigDecimal.ONE),
+                LedgerEntry.credit(transfer.getId(), transfer.getReceiverId(), creditAmount, exchangeRate));
+    }
+
+    /**
+     * Account whose stored balance disagrees with its ledger balance
+     */
+    public static class BalanceMismatch {
+        private final Integer accountId;
+        private final String accountNo;
+        private final BigDecimal storedBalance;
+        private final BigDecimal ledgerBalance;
+
+        public BalanceMismatch(Integer accountId, String accountNo, BigDecimal storedBalance, BigDecimal ledgerBalance) {
+            this.accountId = accountId;
+            this.accountNo = accountNo;
+            this.storedBalance = storedBalance;
+            this.ledgerBalance = ledgerBalance;
+        }
+
+        // Getters
+        public Integer getAccountId() { return accountId; }
+        public String getAccountNo() { return accountNo; }
+        public BigDecimal getStoredBalance() { return storedBalance; }
+        public BigDecimal getLedgerBalance() { return ledgerBalance; }
+        public BigDecimal getDifference() { return storedBalance.subtract(ledgerBalance); }
+    }
+}
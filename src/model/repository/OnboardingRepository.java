@@ -0,0 +1,175 @@
+// model/repository/OnboardingRepository.java
+package model.repository;
+
+import database.Database;
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.LedgerEntry;
+import model.entity.Transaction;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writer for new accounts with their opening deposits.
+ * Bulk onboarding writes each chunk with four JDBC batches (customers,
+ * accounts, deposits, ledger postings) and a single commit.
+ */
+public class OnboardingRepository {
+    private final Database database;
+
+    public OnboardingRepository() {
+        this(Database.getInstance());
+    }
+
+    public OnboardingRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Save a chunk of customer bundles in one transaction.
+     * If the batch is rejected, the chunk is retried row by row behind
+     * savepoints so only the offending bundles fail; their error is set on
+     * the bundle and everything else is still committed.
+     * @return number of bundles saved
+     */
+    public int saveChunk(List<CustomerBundle> bundles) {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                insertBundles(connection, bundles);
+                connection.commit();
+                return bundles.size();
+
+            } catch (SQLException batchError) {
+                connection.rollback();
+                bundles.forEach(CustomerBundle::clearGeneratedIds);
+                return saveRowByRow(connection, bundles);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving onboarding chunk: " + e.getMessage());
+            bundles.forEach(bundle -> bundle.fail("Database error: " + e.getMessage()));
+            return 0;
+        }
+    }
+
+    /**
+     * Open a single account for an existing customer together with its
+     * initial deposit and ledger postings, in one transaction
+     */
+    public boolean openAccount(Account account, Transaction initialDeposit) {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                AccountRepository.insertBatch(connection, List.of(account));
+                initialDeposit.setSenderId(account.getId());
+                TransactionRepository.insertBatch(connection, List.of(initialDeposit));
+                LedgerRepository.insertEntries(connection, LedgerRepository.depositEntries(initialDeposit));
+                connection.commit();
+                return true;
+
+            } catch (SQLException e) {
+                connection.rollback();
+                account.setId(null);
+                initialDeposit.setId(null);
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error opening account: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private int saveRowByRow(Connection connection, List<CustomerBundle> bundles) throws SQLException {
+        int saved = 0;
+        for (CustomerBundle bundle : bundles) {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                insertBundles(connection, List.of(bundle));
+                connection.releaseSavepoint(savepoint);
+                saved++;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                bundle.clearGeneratedIds();
+                bundle.fail(e.getMessage());
+            }
+        }
+        connection.commit();
+        return saved;
+    }
+
+    private void insertBundles(Connection connection, List<CustomerBundle> bundles) throws SQLException {
+        List<Customer> customers = new ArrayList<>();
+        for (CustomerBundle bundle : bundles) {
+            customers.add(bundle.getCustomer());
+        }
+        CustomerRepository.insertBatch(connection, customers);
+
+        List<Account> accounts = new ArrayList<>();
+        for (CustomerBundle bundle : bundles) {
+            for (Account account : bundle.getAccounts()) {
+                account.setCustomerId(bundle.getCustomer().getId());
+                accounts.add(account);
+            }
+        }
+        AccountRepository.insertBatch(connection, accounts);
+
+        List<Transaction> deposits = new ArrayList<>();
+        for (CustomerBundle bundle : bundles) {
+            for (int i = 0; i < bundle.getAccounts().size(); i++) {
+                Transaction deposit = bundle.getInitialDeposits().get(i);
+                deposit.setSenderId(bundle.getAccounts().get(i).getId());
+                deposits.add(deposit);
+            }
+        }
+        TransactionRepository.insertBatch(connection, deposits);
+
+        List<LedgerEntry> postings = new ArrayList<>();
+        for (Transaction deposit : deposits) {
+            postings.addAll(LedgerRepository.depositEntries(deposit));
+        }
+        LedgerRepository.insertEntries(connection, postings);
+    }
+
+    /**
+     * A new customer with the accounts to open and one initial deposit per account
+     */
+    public static class CustomerBundle {
+        private final Customer customer;
+        private final List<Account> accounts;
+        private final List<Transaction> initialDeposits;
+        private String error;
+
+        public CustomerBundle(Customer customer, List<Account> accounts, List<Transaction> initialDeposits) {
+            if (accounts.size() != initialDeposits.size()) {
+                throw new IllegalArgumentException("Each account needs exactly one initial deposit");
+            }
+            this.customer = customer;
+            this.accounts = accounts;
+            this.initialDeposits = initialDeposits;
+        }
+
+        private void fail(String error) {
+            this.error = error;
+        }
+
+        /**
+         * Forget IDs assigned by a rolled-back insert
+         */
+        private void clearGeneratedIds() {
+            customer.setId(null);
+            accounts.forEach(account -> account.setId(null));
+            initialDeposits.forEach(deposit -> deposit.setId(null));
+        }
+
+        // Getters
+        public Customer getCustomer() { return customer; }
+        public List<Account> getAccounts() { return accounts; }
+        public List<Transaction> getInitialDeposits() { return initialDeposits; }
+        public boolean isSaved() { return error == null && customer.getId() != null; }
+        public String getError() { return error; }
+    }
+}
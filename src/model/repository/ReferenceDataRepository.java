@@ -0,0 +1,75 @@
+// model/repository/ReferenceDataRepository.java
+package model.repository;
+
+import database.Database;
+
+import java.sql.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loads the small lookup tables seeded by DatabaseInitUtil
+ */
+public class ReferenceDataRepository {
+    private final Database database;
+
+    public ReferenceDataRepository() {
+        this(Database.getInstance());
+    }
+
+    public ReferenceDataRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Get all transaction types (id -> type)
+     */
+    public Map<Integer, String> findAllTransactionTypes() {
+        return findAll("SELECT id, type FROM transaction_types WHERE is_deleted = false ORDER BY id",
+                "transaction types");
+    }
+
+    /**
+     * Get all account types (id -> type)
+     */
+    public Map<Integer, String> findAllAccountTypes() {
+        return findAll("SELECT id, type FROM account_types WHERE is_deleted = false ORDER BY id",
+                "account types");
+    }
+
+    /**
+     * Get all customer segments (id -> segment)
+     */
+    public Map<Integer, String> findAllCustomerSegments() {
+        return findAll("SELECT id, segment FROM customer_segments WHERE is_deleted = false ORDER BY id",
+                "customer segments");
+    }
+
+    /**
+     * Get all bill categories (id -> category name)
+     */
+    public Map<Integer, String> findAllBillCategories() {
+        return findAll("SELECT id, category_name FROM bill_categories WHERE is_deleted = false ORDER BY id",
+                "bill categories");
+    }
+
+    /**
+     * Run an (id, name) lookup query, keeping id order
+     */
+    private Map<Integer, String> findAll(String sql, String description) {
+        Map<Integer, String> values = new LinkedHashMap<>();
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+
+            while (resultSet.next()) {
+                values.put(resultSet.getInt(1), resultSet.getString(2));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error loading " + description + ": " + e.getMessage());
+        }
+        return values;
+    }
+}
@@ -2,72 +2,228 @@
 package model.repository;
 
 import database.Database;
+import database.JournalWriter;
+import model.entity.LedgerEntry;
 import model.entity.Transaction;
 
+import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class TransactionRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO transactions (sender_id, receiver_id, transaction_type_id, bill_category_id,
+                                    amount, status, remark, is_deleted, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Rows fetched per round trip when streaming through a server-side cursor
+    private static final int STREAM_FETCH_SIZE = 200;
+
+    private static final String DETAIL_COLUMNS = """
+            SELECT t.*, tt.type as transaction_type_name,
+                   sa.account_name as sender_account_name, sa.account_no as sender_account_no,
+                   ra.account_name as receiver_account_name, ra.account_no as receiver_account_no,
+                   bc.category_name as bill_category_name
+            """;
+
+    private static final String DETAIL_JOINS = """
+            JOIN transaction_types tt ON t.transaction_type_id = tt.id
+            LEFT JOIN accounts sa ON t.sender_id = sa.id
+            LEFT JOIN accounts ra ON t.receiver_id = ra.id
+            LEFT JOIN bill_categories bc ON t.bill_category_id = bc.id
+            """;
+
+    private static final String SELECT_WITH_DETAILS = DETAIL_COLUMNS + "FROM transactions t\n" + DETAIL_JOINS;
+
+    // How long a caller waits for the journal writer to take its records.
+    // Once taken they are awaited however long the commit takes, since giving
+    // up then would leave the outcome unknown.
+    private static final long JOURNAL_QUEUE_TIMEOUT_SECONDS = 10;
+
     private final Database database;
+    // Transaction rows and ledger postings are group-committed through here
+    private final JournalWriter journal;
 
-    public TransactionRepository() {
-        this.database = Database.getInstance();
+    /**
+     * @param journal the application's shared writer; its owner closes it
+     */
+    public TransactionRepository(Database database, JournalWriter journal) {
+        this.database = database;
+        this.journal = journal;
     }
 
     /**
-     * Create a new transaction
+     * Credit a cash deposit and record it with its ledger postings
      */
-    public boolean createTransaction(Transaction transaction) {
-        String sql = """
-            INSERT INTO transactions (sender_id, receiver_id, transaction_type_id, bill_category_id,
-                                    amount, status, remark, is_deleted, created_at)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
+    public PostingResult executeDeposit(Transaction deposit) {
+        return post("deposit", deposit, connection -> {
+            Optional<BigDecimal> balance = credit(connection, deposit.getSenderId(), deposit.getAmount());
+            return balance.isPresent()
+                    ? PostingResult.success(deposit, balance.get(), null)
+                    : PostingResult.failure(PostingResult.Status.ACCOUNT_UNAVAILABLE);
+        }, LedgerRepository::depositEntries);
+    }
 
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Debit a cash withdrawal and record it with its ledger postings.
+     * The debit only applies when the account is active and the balance covers it;
+     * otherwise the result is INSUFFICIENT_FUNDS.
+     */
+    public PostingResult executeWithdrawal(Transaction withdrawal) {
+        return post("withdrawal", withdrawal, connection -> {
+            Optional<BigDecimal> balance = debit(connection, withdrawal.getSenderId(), withdrawal.getAmount());
+            return balance.isPresent()
+                    ? PostingResult.success(withdrawal, balance.get(), null)
+                    : PostingResult.failure(PostingResult.Status.INSUFFICIENT_FUNDS);
+        }, LedgerRepository::withdrawalEntries);
+    }
 
-            statement.setInt(1, transaction.getSenderId());
+    /**
+     * Atomically move money between two accounts and record the transfer.
+     * The debit only applies when the balance covers it, and rows are updated
+     * in account id order so two opposite transfers cannot deadlock each other.
+     * @param creditAmount amount credited, in the receiver's currency
+     * @param exchangeRate rate applied to the transaction amount to get creditAmount
+     */
+    public PostingResult executeTransfer(Transaction transaction, BigDecimal creditAmount, BigDecimal exchangeRate) {
+        return post("transfer", transaction, connection -> moveFunds(connection, transaction, creditAmount),
+                recorded -> LedgerRepository.transferEntries(recorded, creditAmount, exchangeRate));
+    }
 
-            // Handle null receiver_id
-            if (transaction.getReceiverId() != null) {
-                statement.setInt(2, transaction.getReceiverId());
-            } else {
-                statement.setNull(2, Types.INTEGER);
-            }
+    private static PostingResult moveFunds(Connection connection, Transaction transaction,
+                                           BigDecimal creditAmount) throws SQLException {
+        Integer fromAccountId = transaction.getSenderId();
+        Integer toAccountId = transaction.getReceiverId();
+        BigDecimal debitAmount = transaction.getAmount();
 
-            statement.setInt(3, transaction.getTransactionTypeId());
+        Optional<BigDecimal> fromBalance = Optional.empty();
+        Optional<BigDecimal> toBalance = Optional.empty();
 
-            // Handle null bill_category_id
-            if (transaction.getBillCategoryId() != null) {
-                statement.setInt(4, transaction.getBillCategoryId());
-            } else {
-                statement.setNull(4, Types.INTEGER);
+        // Lock rows in a consistent order
+        if (fromAccountId < toAccountId) {
+            fromBalance = debit(connection, fromAccountId, debitAmount);
+            if (fromBalance.isPresent()) {
+                toBalance = credit(connection, toAccountId, creditAmount);
             }
+        } else {
+            toBalance = credit(connection, toAccountId, creditAmount);
+            if (toBalance.isPresent()) {
+                fromBalance = debit(connection, fromAccountId, debitAmount);
+            }
+        }
 
-            statement.setBigDecimal(5, transaction.getAmount());
-            statement.setString(6, transaction.getStatus());
-            statement.setString(7, transaction.getRemark());
-            statement.setBoolean(8, transaction.isDeleted());
-            statement.setTimestamp(9, Timestamp.valueOf(transaction.getCreatedAt()));
+        if (fromBalance.isEmpty() || toBalance.isEmpty()) {
+            // The debit was refused if it actually ran and matched no row
+            boolean debitRefused = fromAccountId < toAccountId ? fromBalance.isEmpty() : toBalance.isPresent();
+            return PostingResult.failure(debitRefused
+                    ? PostingResult.Status.INSUFFICIENT_FUNDS
+                    : PostingResult.Status.ACCOUNT_UNAVAILABLE);
+        }
+        return PostingResult.success(transaction, fromBalance.get(), toBalance.get());
+    }
 
-            int rowsAffected = statement.executeUpdate();
+    /**
+     * Balance updates of one money movement, run on the caller's connection
+     */
+    @FunctionalInterface
+    private interface BalanceChange {
+        PostingResult apply(Connection connection) throws SQLException;
+    }
 
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        transaction.setId(generatedKeys.getInt(1));
-                        return true;
+    /**
+     * Run a money movement: the balance updates run on a pooled connection of
+     * the caller's own, the transaction row and ledger postings are
+     * group-committed through the journal, and the balance updates commit once
+     * those are durable. The balance row locks are held while waiting; the
+     * journal's inserts only take KEY SHARE locks on the accounts through
+     * their foreign keys, which don't conflict with them.
+     * @param entries ledger postings for the transaction, once it has its id
+     */
+    private PostingResult post(String operation, Transaction transaction, BalanceChange change,
+                               Function<Transaction, List<LedgerEntry>> entries) {
+        PostingResult result;
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                result = change.apply(connection);
+                if (result.isSuccess()) {
+                    PostingResult.Status recorded = record(operation, transaction, entries);
+                    if (recorded != PostingResult.Status.SUCCESS) {
+                        result = PostingResult.failure(recorded);
                     }
                 }
+                if (!result.isSuccess()) {
+                    connection.rollback();
+                    return result;
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
-            return false;
 
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                // The records are already committed, so the balances may now disagree with them
+                System.err.println("Error committing " + operation + " " + transaction.getId() +
+                        " after it was recorded; reconcile its accounts: " + e.getMessage());
+                return PostingResult.failure(PostingResult.Status.UNKNOWN);
+            }
         } catch (SQLException e) {
-            System.err.println("Error creating transaction: " + e.getMessage());
-            return false;
+            System.err.println("Error executing " + operation + ": " + e.getMessage());
+            return PostingResult.failure(PostingResult.Status.ERROR);
+        }
+        return result;
+    }
+
+    /**
+     * Group-commit a transaction row and its ledger postings through the journal.
+     * If the writer hasn't taken them within JOURNAL_QUEUE_TIMEOUT_SECONDS they
+     * are withdrawn, which is a plain failure; once taken, the commit is awaited.
+     * @return SUCCESS, ERROR when nothing was recorded, or UNKNOWN when the
+     *         records may or may not have been committed
+     */
+    private PostingResult.Status record(String operation, Transaction transaction,
+                                        Function<Transaction, List<LedgerEntry>> entries) {
+        CompletableFuture<Integer> recorded = journal.submit(connection -> {
+            if (!insertTransaction(connection, transaction)) {
+                throw new SQLException("No transaction row inserted");
+            }
+            LedgerRepository.insertEntries(connection, entries.apply(transaction));
+            return transaction.getId();
+        });
+
+        try {
+            try {
+                recorded.get(JOURNAL_QUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (recorded.cancel(false)) {
+                    System.err.println("Error recording " + operation + ": journal did not take it within " +
+                            JOURNAL_QUEUE_TIMEOUT_SECONDS + "s");
+                    return PostingResult.Status.ERROR;
+                }
+                recorded.get();
+            }
+            return PostingResult.Status.SUCCESS;
+        } catch (ExecutionException e) {
+            System.err.println("Error recording " + operation + ": " + e.getCause().getMessage());
+            return e.getCause() instanceof JournalWriter.CommitOutcomeUnknownException
+                    ? PostingResult.Status.UNKNOWN
+                    : PostingResult.Status.ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return recorded.cancel(false) ? PostingResult.Status.ERROR : PostingResult.Status.UNKNOWN;
         }
     }
 
@@ -112,19 +268,7 @@ public class TransactionRepository {
      * Find transactions by customer ID (all accounts)
      */
     public List<Transaction> findTransactionsByCustomerId(Integer customerId) {
-        String sql = """
-            SELECT DISTINCT t.*, tt.type as transaction_type_name,
-                   sa.account_name as sender_account_name, sa.account_no as sender_account_no,
-                   ra.account_name as receiver_account_name, ra.account_no as receiver_account_no,
-                   bc.category_name as bill_category_name
-            FROM transactions t
-            JOIN transaction_types tt ON t.transaction_type_id = tt.id
-            LEFT JOIN accounts sa ON t.sender_id = sa.id
-            LEFT JOIN accounts ra ON t.receiver_id = ra.id
-            LEFT JOIN bill_categories bc ON t.bill_category_id = bc.id
-            WHERE (sa.customer_id = ? OR ra.customer_id = ?) AND t.is_deleted = false
-            ORDER BY t.created_at DESC
-            """;
+        String sql = customerHistorySql(false, false);
 
         List<Transaction> transactions = new ArrayList<>();
 
@@ -145,6 +289,104 @@ public class TransactionRepository {
         return transactions;
     }
 
+    /**
+     * Sum successful outgoing amounts for an account within [from, to).
+     * Deposits are stored with the account as sender_id, so they are excluded explicitly.
+     * Served by the (sender_id, created_at) index, so cost depends on the
+     * number of rows in the range rather than the account's full history.
+     * @return empty if the sum could not be read
+     */
+    public Optional<BigDecimal> sumOutgoingAmount(Integer accountId, LocalDateTime from, LocalDateTime to) {
+        String sql = """
+            SELECT COALESCE(SUM(t.amount), 0) FROM transactions t
+            JOIN transaction_types tt ON t.transaction_type_id = tt.id
+            WHERE t.sender_id = ? AND t.created_at >= ? AND t.created_at < ?
+              AND LOWER(t.status) = 'success' AND t.is_deleted = false
+              AND LOWER(tt.type) <> 'deposit'
+            """;
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setInt(1, accountId);
+            statement.setTimestamp(2, Timestamp.valueOf(from));
+            statement.setTimestamp(3, Timestamp.valueOf(to));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(resultSet.getBigDecimal(1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error summing outgoing transactions: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get one page of an account's transactions, newest first.
+     * Pages are keyed on (created_at, id), so each page costs the same no matter how deep it is.
+     * @param after cursor from the previous page, or null for the first page
+     */
+    public TransactionPage findTransactionsByAccountIdPage(Integer accountId, PageCursor after, int limit) {
+        String sql = SELECT_WITH_DETAILS +
+                "WHERE (t.sender_id = ? OR t.receiver_id = ?) AND t.is_deleted = false\n" +
+                (after != null ? "AND (t.created_at, t.id) < (?, ?)\n" : "") +
+                "ORDER BY t.created_at DESC, t.id DESC LIMIT ?";
+
+        List<Object> parameters = new ArrayList<>(List.of(accountId, accountId));
+        if (after != null) {
+            parameters.add(after.getCreatedAt());
+            parameters.add(after.getId());
+        }
+        // One extra row tells us whether another page exists
+        parameters.add(limit + 1);
+
+        return findPage(sql, parameters, limit);
+    }
+
+    /**
+     * Get one page of a customer's transactions (all accounts), newest first
+     * @param after cursor from the previous page, or null for the first page
+     */
+    public TransactionPage findTransactionsByCustomerIdPage(Integer customerId, PageCursor after, int limit) {
+        String sql = customerHistorySql(after != null, true);
+
+        // Each branch is cut to the page size on its own index, then the merge is cut again
+        List<Object> parameters = new ArrayList<>();
+        for (int branch = 0; branch < 2; branch++) {
+            parameters.add(customerId);
+            if (after != null) {
+                parameters.add(after.getCreatedAt());
+                parameters.add(after.getId());
+            }
+            parameters.add(limit + 1);
+        }
+        parameters.add(limit + 1);
+
+        return findPage(sql, parameters, limit);
+    }
+
+    /**
+     * Stream all of a customer's transactions to a consumer, newest first,
+     * without holding the whole history in memory
+     * @return number of transactions delivered
+     */
+    public int streamTransactionsByCustomerId(Integer customerId, Consumer<Transaction> consumer) {
+        return stream(customerHistorySql(false, false), List.of(customerId, customerId), consumer);
+    }
+
+    /**
+     * Stream all of an account's transactions to a consumer, newest first
+     * @return number of transactions delivered
+     */
+    public int streamTransactionsByAccountId(Integer accountId, Consumer<Transaction> consumer) {
+        String sql = SELECT_WITH_DETAILS +
+                "WHERE (t.sender_id = ? OR t.receiver_id = ?) AND t.is_deleted = false\n" +
+                "ORDER BY t.created_at DESC, t.id DESC";
+        return stream(sql, List.of(accountId, accountId), consumer);
+    }
+
     /**
      * Find transaction by ID
      */
@@ -198,44 +440,261 @@ public class TransactionRepository {
     }
 
     /**
-     * Get transaction type ID by name
+     * Soft delete transaction
+     */
+    public boolean deleteTransaction(Integer transactionId) {
+        String sql = "UPDATE transactions SET is_deleted = true WHERE id = ?";
+
+        try (Connection connection = database.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            statement.setInt(1, transactionId);
+            return statement.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting transaction: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Build the customer history query as two index-driven branches:
+     * rows sent from one of the customer's accounts, UNION ALL rows received by
+     * one of them. The receiver branch skips rows whose sender is also the
+     * customer's (transfers between own accounts), which the sender branch
+     * already returned, so no DISTINCT over the whole result is needed.
+     * Each branch takes the customer ID, then (created_at, id) when keyed and
+     * a row limit when limited; a limited query takes one more limit at the end.
      */
-    public Optional<Integer> getTransactionTypeId(String typeName) {
-        String sql = "SELECT id FROM transaction_types WHERE LOWER(type) = LOWER(?) AND is_deleted = false";
+    private static String customerHistorySql(boolean keyed, boolean limited) {
+        String branchFilter = (keyed ? "AND (t.created_at, t.id) < (?, ?)\n" : "") +
+                (limited ? "ORDER BY t.created_at DESC, t.id DESC LIMIT ?\n" : "");
+
+        return DETAIL_COLUMNS +
+                "FROM (\n" +
+                "(SELECT t.* FROM transactions t\n" +
+                "JOIN accounts own ON t.sender_id = own.id\n" +
+                "WHERE own.customer_id = ? AND t.is_deleted = false\n" +
+                branchFilter + ")\n" +
+                "UNION ALL\n" +
+                "(SELECT t.* FROM transactions t\n" +
+                "JOIN accounts own ON t.receiver_id = own.id\n" +
+                "LEFT JOIN accounts other ON t.sender_id = other.id\n" +
+                "WHERE own.customer_id = ? AND t.is_deleted = false\n" +
+                "AND other.customer_id IS DISTINCT FROM own.customer_id\n" +
+                branchFilter + ")\n" +
+                ") t\n" +
+                DETAIL_JOINS +
+                "ORDER BY t.created_at DESC, t.id DESC" +
+                (limited ? " LIMIT ?" : "");
+    }
+
+    /**
+     * Run a keyset page query that asks for limit + 1 rows
+     */
+    private TransactionPage findPage(String sql, List<Object> parameters, int limit) {
+        List<Transaction> transactions = new ArrayList<>();
 
         try (Connection connection = database.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
 
-            statement.setString(1, typeName);
+            bindParameters(statement, parameters);
+
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return Optional.of(resultSet.getInt("id"));
+                while (resultSet.next()) {
+                    transactions.add(mapResultSetToTransaction(resultSet));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting transaction type ID: " + e.getMessage());
+            System.err.println("Error finding transaction page: " + e.getMessage());
         }
-        return Optional.empty();
+
+        boolean hasMore = transactions.size() > limit;
+        if (hasMore) {
+            transactions = new ArrayList<>(transactions.subList(0, limit));
+        }
+        PageCursor next = hasMore ? PageCursor.of(transactions.get(transactions.size() - 1)) : null;
+        return new TransactionPage(transactions, next);
     }
 
     /**
-     * Soft delete transaction
+     * Stream query; PostgreSQL only uses a server-side cursor for fetchSize
+     * when auto-commit is off
      */
-    public boolean deleteTransaction(Integer transactionId) {
-        String sql = "UPDATE transactions SET is_deleted = true WHERE id = ?";
+    private int stream(String sql, List<Object> parameters, Consumer<Transaction> consumer) {
+        int delivered = 0;
 
-        try (Connection connection = database.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = database.getConnection()) {
+            connection.setAutoCommit(false);
 
-            statement.setInt(1, transactionId);
-            return statement.executeUpdate() > 0;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setFetchSize(STREAM_FETCH_SIZE);
+                bindParameters(statement, parameters);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(mapResultSetToTransaction(resultSet));
+                        delivered++;
+                    }
+                }
+            }
+            connection.commit();
 
         } catch (SQLException e) {
-            System.err.println("Error deleting transaction: " + e.getMessage());
+            System.err.println("Error streaming transactions: " + e.getMessage());
+        }
+        return delivered;
+    }
+
+    private static void bindParameters(PreparedStatement statement, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Object parameter = parameters.get(i);
+            if (parameter instanceof LocalDateTime dateTime) {
+                statement.setTimestamp(i + 1, Timestamp.valueOf(dateTime));
+            } else {
+                statement.setInt(i + 1, (Integer) parameter);
+            }
+        }
+    }
+
+    /**
+     * Insert a transaction row on the given connection
+     */
+    private static boolean insertTransaction(Connection connection, Transaction transaction) throws SQLException {
+        try (PreparedStatement statement = Database.prepareHot(connection, INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            bindTransaction(statement, transaction);
+
+            int rowsAffected = statement.executeUpdate();
+
+            if (rowsAffected > 0) {
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        transaction.setId(generatedKeys.getInt(1));
+                        return true;
+                    }
+                }
+            }
             return false;
         }
     }
 
+    /**
+     * Insert transactions as one JDBC batch on a caller-managed connection, setting generated IDs
+     */
+    static void insertBatch(Connection connection, List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+            for (Transaction transaction : transactions) {
+                bindTransaction(statement, transaction);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (Transaction transaction : transactions) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated key for transaction");
+                    }
+                    transaction.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    private static void bindTransaction(PreparedStatement statement, Transaction transaction) throws SQLException {
+        statement.setInt(1, transaction.getSenderId());
+
+        // Handle null receiver_id
+        if (transaction.getReceiverId() != null) {
+            statement.setInt(2, transaction.getReceiverId());
+        } else {
+            statement.setNull(2, Types.INTEGER);
+        }
+
+        statement.setInt(3, transaction.getTransactionTypeId());
+
+        // Handle null bill_category_id
+        if (transaction.getBillCategoryId() != null) {
+            statement.setInt(4, transaction.getBillCategoryId());
+        } else {
+            statement.setNull(4, Types.INTEGER);
+        }
+
+        statement.setBigDecimal(5, transaction.getAmount());
+        statement.setString(6, transaction.getStatus());
+        statement.setString(7, transaction.getRemark());
+        statement.setBoolean(8, transaction.isDeleted());
+        statement.setTimestamp(9, Timestamp.valueOf(transaction.getCreatedAt()));
+    }
+
+    /**
+     * Add amount to an active account.
+     * Credits to a hot account go to one of its slots instead of the accounts
+     * row, so concurrent credits don't queue on one row lock; the returned
+     * balance then includes the slots. Either way this is one round trip.
+     */
+    private static Optional<BigDecimal> credit(Connection connection, Integer accountId, BigDecimal amount) throws SQLException {
+        // The final SELECT sees the slots as they were before this statement, hence "+ ?"
+        String sql = """
+            WITH hot AS (
+                INSERT INTO account_balance_slots (account_id, slot, balance)
+                SELECT id, ?, ? FROM accounts
+                WHERE id = ? AND is_hot = true AND is_freeze = false AND is_deleted = false
+                ON CONFLICT (account_id, slot) DO UPDATE
+                    SET balance = account_balance_slots.balance + EXCLUDED.balance
+                RETURNING account_id
+            ), cold AS (
+                UPDATE accounts SET balance = balance + ?
+                WHERE id = ? AND is_hot = false AND is_freeze = false AND is_deleted = false
+                RETURNING balance
+            )
+            SELECT balance FROM cold
+            UNION ALL
+            SELECT a.balance + (SELECT COALESCE(SUM(s.balance), 0) FROM account_balance_slots s
+                                WHERE s.account_id = a.id) + ?
+            FROM accounts a JOIN hot ON hot.account_id = a.id
+            """;
+
+        try (PreparedStatement statement = Database.prepareHot(connection, sql)) {
+            statement.setInt(1, ThreadLocalRandom.current().nextInt(AccountRepository.HOT_ACCOUNT_SLOTS));
+            statement.setBigDecimal(2, amount);
+            statement.setInt(3, accountId);
+            statement.setBigDecimal(4, amount);
+            statement.setInt(5, accountId);
+            statement.setBigDecimal(6, amount);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(resultSet.getBigDecimal(1)) : Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Subtract amount only if the account is active and the balance covers it.
+     * Pending hot-account credits are folded in first, so the check covers the whole balance.
+     */
+    private static Optional<BigDecimal> debit(Connection connection, Integer accountId, BigDecimal amount) throws SQLException {
+        AccountRepository.foldHotCredits(connection, accountId);
+
+        String sql = """
+            UPDATE accounts SET balance = balance - ?
+            WHERE id = ? AND balance >= ? AND is_freeze = false AND is_deleted = false
+            RETURNING balance
+            """;
+
+        try (PreparedStatement statement = Database.prepareHot(connection, sql)) {
+            statement.setBigDecimal(1, amount);
+            statement.setInt(2, accountId);
+            statement.setBigDecimal(3, amount);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(resultSet.getBigDecimal(1)) : Optional.empty();
+            }
+        }
+    }
+
     /**
      * Map ResultSet to Transaction entity
      */
@@ -270,4 +729,84 @@ public class TransactionRepository {
 
         return transaction;
     }
-}
\ No newline at end of file
+
+    /**
+     * Outcome of a money movement.
+     * UNKNOWN means it may or may not have been applied (the journal's commit
+     * failed mid-way, or the balances failed to commit after the records did),
+     * so it must be checked before being retried.
+     */
+    public static class PostingResult {
+        public enum Status {
+            SUCCESS, INSUFFICIENT_FUNDS, ACCOUNT_UNAVAILABLE, ERROR, UNKNOWN
+        }
+
+        private final Status status;
+        private final Transaction transaction;
+        private final BigDecimal balance;
+        private final BigDecimal receiverBalance;
+
+        private PostingResult(Status status, Transaction transaction, BigDecimal balance, BigDecimal receiverBalance) {
+            this.status = status;
+            this.transaction = transaction;
+            this.balance = balance;
+            this.receiverBalance = receiverBalance;
+        }
+
+        /**
+         * @param balance new balance of the transaction's sender account
+         * @param receiverBalance new balance of the receiver account, or null if there is none
+         */
+        public static PostingResult success(Transaction transaction, BigDecimal balance, BigDecimal receiverBalance) {
+            return new PostingResult(Status.SUCCESS, transaction, balance, receiverBalance);
+        }
+
+        public static PostingResult failure(Status status) {
+            return new PostingResult(status, null, null, null);
+        }
+
+        // Getters
+        public boolean isSuccess() { return status == Status.SUCCESS; }
+        public Status getStatus() { return status; }
+        public Transaction getTransaction() { return transaction; }
+        public BigDecimal getBalance() { return balance; }
+        public BigDecimal getReceiverBalance() { return receiverBalance; }
+    }
+
+    /**
+     * Position after the last row of a page
+     */
+    public static class PageCursor {
+        private final LocalDateTime createdAt;
+        private final Integer id;
+
+        public PageCursor(LocalDateTime createdAt, Integer id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public static PageCursor of(Transaction transaction) {
+            return new PageCursor(transaction.getCreatedAt(), transaction.getId());
+        }
+
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public Integer getId() { return id; }
+    }
+
+    /**
+     * One page of transactions plus the cursor for the next page
+     */
+    public static class TransactionPage {
+        private final List<Transaction> transactions;
+        private final PageCursor nextCursor;
+
+        public TransactionPage(List<Transaction> transactions, PageCursor nextCursor) {
+            this.transactions = transactions;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Transaction> getTransactions() { return transactions; }
+        public PageCursor getNextCursor() { return nextCursor; }
+        public boolean hasMore() { return nextCursor != null; }
+    }
+}
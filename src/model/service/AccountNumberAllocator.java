@@ -0,0 +1,80 @@
+// model/service/AccountNumberAllocator.java
+package model.service;
+
+import model.repository.AccountRepository;
+import util.AccountUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Hands out unique account numbers without scanning existing accounts.
+ * Blocks of sequence values are reserved from account_no_seq and each value is
+ * mapped through AccountUtil.accountNumberFromSequence, a bijection onto the
+ * 9-digit space. One database round trip serves a whole block.
+ */
+public class AccountNumberAllocator {
+    // Numbers issued by the old random generator may still occupy part of the space
+    private static final int MAX_COLLISION_RETRIES = 100;
+
+    private final AccountRepository accountRepository;
+    private long nextValue = 0;
+    private long blockEnd = 0;
+
+    public AccountNumberAllocator(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    /**
+     * Get the next free account number
+     */
+    public String nextAccountNumber() {
+        for (int attempt = 0; attempt < MAX_COLLISION_RETRIES; attempt++) {
+            String accountNumber = AccountUtil.accountNumberFromSequence(nextSequenceValue());
+            if (!accountRepository.accountNumberExists(accountNumber)) {
+                return accountNumber;
+            }
+        }
+        throw new RuntimeException("Unable to allocate account number after " + MAX_COLLISION_RETRIES + " attempts");
+    }
+
+    /**
+     * Get several free account numbers, checking collisions with one query per round
+     */
+    public List<String> nextAccountNumbers(int count) {
+        List<String> allocated = new ArrayList<>(count);
+
+        for (int attempt = 0; allocated.size() < count && attempt < MAX_COLLISION_RETRIES; attempt++) {
+            List<String> candidates = new ArrayList<>(count - allocated.size());
+            for (int i = allocated.size(); i < count; i++) {
+                candidates.add(AccountUtil.accountNumberFromSequence(nextSequenceValue()));
+            }
+
+            Set<String> taken = accountRepository.findExistingAccountNumbers(candidates);
+            for (String candidate : candidates) {
+                if (!taken.contains(candidate)) {
+                    allocated.add(candidate);
+                }
+            }
+        }
+
+        if (allocated.size() < count) {
+            throw new RuntimeException("Unable to allocate " + count + " account numbers");
+        }
+        return allocated;
+    }
+
+    private synchronized long nextSequenceValue() {
+        if (nextValue >= blockEnd) {
+            Optional<Long> blockStart = accountRepository.reserveAccountNumberBlock();
+            if (blockStart.isEmpty()) {
+                throw new RuntimeException("Unable to reserve account numbers");
+            }
+            nextValue = blockStart.get();
+            blockEnd = nextValue + AccountUtil.ACCOUNT_NUMBER_BLOCK_SIZE;
+        }
+        return nextValue++;
+    }
+}
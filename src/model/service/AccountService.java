@@ -6,6 +6,7 @@ import model.entity.AccountType;
 import model.entity.Customer;
 import model.entity.Transaction;
 import model.repository.AccountRepository;
+import model.repository.OnboardingRepository;
 import model.repository.TransactionRepository;
 import util.AccountUtil;
 
@@ -18,16 +19,30 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final CustomerService customerService;
+    private final ReferenceData referenceData;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final OnboardingRepository onboardingRepository;
+    private final SessionStore sessionStore;
 
     // Account limits
     private static final int SAVING_ACCOUNTS_LIMIT = 2; // One USD, One KHR
     private static final int CHECKING_ACCOUNTS_LIMIT = 1;
     private static final int FIXED_ACCOUNTS_LIMIT = 1;
 
-    public AccountService() {
-        this.accountRepository = new AccountRepository();
-        this.transactionRepository = new TransactionRepository();
-        this.customerService = new CustomerService();
+    // Customers written per database transaction during bulk onboarding
+    private static final int DEFAULT_ONBOARDING_CHUNK_SIZE = 500;
+
+    public AccountService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                          CustomerService customerService, ReferenceData referenceData,
+                          AccountNumberAllocator accountNumberAllocator, OnboardingRepository onboardingRepository,
+                          SessionStore sessionStore) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.customerService = customerService;
+        this.referenceData = referenceData;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.onboardingRepository = onboardingRepository;
+        this.sessionStore = sessionStore;
     }
 
     /**
@@ -53,7 +68,7 @@ public class AccountService {
         Customer customer = customerOpt.get();
 
         // Validate account type
-        Optional<AccountType> accountTypeOpt = accountRepository.findAccountTypeByName(accountType);
+        Optional<AccountType> accountTypeOpt = referenceData.getAccountTypeByName(accountType);
         if (accountTypeOpt.isEmpty()) {
             System.out.println("❌ Invalid account type!");
             return false;
@@ -92,9 +107,8 @@ public class AccountService {
             }
         }
 
-        // Generate unique account number
-        Set<String> existingNumbers = accountRepository.getAllAccountNumbers();
-        String accountNumber = AccountUtil.generateAccountNumber(existingNumbers);
+        // Allocate unique account number
+        String accountNumber = accountNumberAllocator.nextAccountNumber();
 
         // Generate account name
         String accountName = AccountUtil.generateAccountName(
@@ -105,18 +119,28 @@ public class AccountService {
                 customerId, accountNumber, accountName, currency, accType.getId(), maturityDate);
         newAccount.setBalance(initialDeposit); // Set initial balance
 
-        // Create account in database
-        boolean accountCreated = accountRepository.createAccount(newAccount);
-        if (!accountCreated) {
-            System.out.println("❌ Failed to create account!");
+        // Get deposit transaction type ID
+        Optional<Integer> depositTypeId = referenceData.getTransactionTypeId("Deposit");
+        if (depositTypeId.isEmpty()) {
+            System.out.println("❌ Deposit transaction type not found!");
             return false;
         }
 
-        // Create initial deposit transaction
-        boolean transactionCreated = createInitialDepositTransaction(newAccount, initialDeposit);
-        if (!transactionCreated) {
-            System.out.println("⚠️ Account created but failed to record initial deposit transaction!");
+        Transaction initialDepositTransaction = Transaction.createTransaction(
+                null,                   // sender_id (set to the new account's ID when saved)
+                null,                   // receiver_id (null for deposits)
+                depositTypeId.get(),    // transaction_type_id
+                initialDeposit,         // amount
+                "Success",              // status
+                "Initial deposit for account opening" // remark
+        );
+
+        // Account, initial deposit and its ledger postings commit together
+        if (!onboardingRepository.openAccount(newAccount, initialDepositTransaction)) {
+            System.out.println("❌ Failed to create account!");
+            return false;
         }
+        sessionStore.invalidateAccounts(customerId);
 
         System.out.println("✅ Account created successfully!");
         System.out.println("   Account Number: " + AccountUtil.formatAccountNumber(accountNumber));
@@ -132,33 +156,195 @@ public class AccountService {
     }
 
     /**
-     * Create initial deposit transaction
+     * Onboard many new customers with their opening accounts and initial deposits
      */
-    private boolean createInitialDepositTransaction(Account account, BigDecimal amount) {
-        try {
-            // Get deposit transaction type ID
-            Optional<Integer> depositTypeId = transactionRepository.getTransactionTypeId("Deposit");
-            if (depositTypeId.isEmpty()) {
-                System.err.println("❌ Deposit transaction type not found!");
-                return false;
+    public List<OnboardingResult> bulkOnboard(List<OnboardingRequest> requests) {
+        return bulkOnboard(requests, DEFAULT_ONBOARDING_CHUNK_SIZE);
+    }
+
+    /**
+     * Onboard many new customers, writing chunkSize customers per database transaction.
+     * Every request gets a result in input order; invalid or rejected rows do
+     * not stop the rest of the run.
+     */
+    public List<OnboardingResult> bulkOnboard(List<OnboardingRequest> requests, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+
+        List<OnboardingResult> results = new ArrayList<>(requests.size());
+        Optional<Integer> depositTypeId = referenceData.getTransactionTypeId("Deposit");
+        if (depositTypeId.isEmpty()) {
+            System.out.println("❌ Deposit transaction type not found!");
+            for (int i = 0; i < requests.size(); i++) {
+                results.add(OnboardingResult.failure(i, "Deposit transaction type not found"));
+            }
+            return results;
+        }
+
+        // Phone numbers and emails seen earlier in this run
+        Set<String> seenContacts = new HashSet<>();
+
+        for (int chunkStart = 0; chunkStart < requests.size(); chunkStart += chunkSize) {
+            List<OnboardingRequest> chunk = requests.subList(chunkStart, Math.min(chunkStart + chunkSize, requests.size()));
+            OnboardingResult[] chunkResults = new OnboardingResult[chunk.size()];
+
+            // Validate in memory first
+            List<Integer> validRows = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                String error = validateOnboardingRequest(chunk.get(i), seenContacts);
+                if (error != null) {
+                    chunkResults[i] = OnboardingResult.failure(chunkStart + i, error);
+                } else {
+                    validRows.add(i);
+                }
             }
 
-            // Create initial deposit transaction using static factory method
-            Transaction initialDeposit = Transaction.createTransaction(
-                    account.getId(),        // sender_id (the account receiving money)
-                    null,                   // receiver_id (null for deposits)
-                    depositTypeId.get(),    // transaction_type_id
-                    amount,                 // amount
-                    "Success",              // status
-                    "Initial deposit for account opening" // remark
-            );
+            // One query for contacts already registered
+            List<String> phoneNumbers = new ArrayList<>();
+            List<String> emails = new ArrayList<>();
+            for (int i : validRows) {
+                phoneNumbers.add(chunk.get(i).getCustomer().getPhoneNumber());
+                emails.add(chunk.get(i).getCustomer().getEmail());
+            }
+            Set<String> existingContacts = validRows.isEmpty()
+                    ? Set.of() : customerService.findExistingContacts(phoneNumbers, emails);
+
+            List<Integer> bundleRows = new ArrayList<>();
+            int accountCount = 0;
+            for (int i : validRows) {
+                Customer customer = chunk.get(i).getCustomer();
+                if (existingContacts.contains(customer.getPhoneNumber())) {
+                    chunkResults[i] = OnboardingResult.failure(chunkStart + i, "Phone number already exists");
+                } else if (existingContacts.contains(customer.getEmail())) {
+                    chunkResults[i] = OnboardingResult.failure(chunkStart + i, "Email already exists");
+                } else {
+                    bundleRows.add(i);
+                    accountCount += chunk.get(i).getAccounts().size();
+                }
+            }
 
-            return transactionRepository.createTransaction(initialDeposit);
+            // Build and write the chunk
+            List<OnboardingRepository.CustomerBundle> bundles = new ArrayList<>();
+            try {
+                Iterator<String> accountNumbers = accountNumberAllocator.nextAccountNumbers(accountCount).iterator();
+                for (int i : bundleRows) {
+                    bundles.add(buildCustomerBundle(chunk.get(i), accountNumbers, depositTypeId.get()));
+                }
+            } catch (RuntimeException e) {
+                for (int i : bundleRows) {
+                    chunkResults[i] = OnboardingResult.failure(chunkStart + i, e.getMessage());
+                }
+                bundles.clear();
+                bundleRows.clear();
+            }
 
-        } catch (Exception e) {
-            System.err.println("Error creating initial deposit transaction: " + e.getMessage());
-            return false;
+            if (!bundles.isEmpty()) {
+                onboardingRepository.saveChunk(bundles);
+            }
+
+            for (int b = 0; b < bundles.size(); b++) {
+                int i = bundleRows.get(b);
+                OnboardingRepository.CustomerBundle bundle = bundles.get(b);
+                chunkResults[i] = bundle.isSaved()
+                        ? OnboardingResult.success(chunkStart + i, bundle.getCustomer().getId(),
+                                bundle.getAccounts().stream().map(Account::getAccountNo).toList())
+                        : OnboardingResult.failure(chunkStart + i, bundle.getError());
+            }
+
+            results.addAll(Arrays.asList(chunkResults));
+        }
+
+        long succeeded = results.stream().filter(OnboardingResult::isSuccess).count();
+        System.out.println("✅ Bulk onboarding finished: " + succeeded + " succeeded, " +
+                (results.size() - succeeded) + " failed.");
+        return results;
+    }
+
+    /**
+     * Validate one onboarding request without touching the database
+     * @return error message, or null if valid
+     */
+    private String validateOnboardingRequest(OnboardingRequest request, Set<String> seenContacts) {
+        Customer customer = request.getCustomer();
+        if (customer == null) {
+            return "Customer data is required";
+        }
+
+        String customerError = customerService.validateCustomerData(customer);
+        if (customerError != null) {
+            return customerError;
+        }
+
+        // Per-customer account limits: one Saving per currency, one Checking, one Fixed
+        Set<String> openedKinds = new HashSet<>();
+        for (InitialAccount initialAccount : request.getAccounts()) {
+            Optional<AccountType> accountType = referenceData.getAccountTypeByName(initialAccount.getAccountType());
+            if (accountType.isEmpty()) {
+                return "Invalid account type: " + initialAccount.getAccountType();
+            }
+
+            String currency = initialAccount.getCurrency();
+            if (!isValidCurrency(currency)) {
+                return "Invalid currency: " + currency;
+            }
+
+            BigDecimal minimumDeposit = getMinimumInitialDeposit(currency);
+            if (initialAccount.getInitialDeposit() == null ||
+                    initialAccount.getInitialDeposit().compareTo(minimumDeposit) < 0) {
+                return "Initial deposit must be at least " + AccountUtil.formatCurrency(minimumDeposit, currency);
+            }
+
+            String typeName = accountType.get().getType().toLowerCase();
+            if ("fixed".equals(typeName) && (initialAccount.getMaturityDate() == null ||
+                    !initialAccount.getMaturityDate().isAfter(LocalDate.now()))) {
+                return "Fixed accounts require a future maturity date";
+            }
+
+            String kind = "saving".equals(typeName) ? typeName + ":" + currency.toUpperCase() : typeName;
+            if (!openedKinds.add(kind)) {
+                return "Duplicate " + accountType.get().getType() + " account requested";
+            }
+        }
+
+        // Duplicates within this run; checked last so rejected rows don't reserve contacts
+        if (seenContacts.contains(customer.getPhoneNumber())) {
+            return "Phone number already exists";
         }
+        if (seenContacts.contains(customer.getEmail())) {
+            return "Email already exists";
+        }
+        seenContacts.add(customer.getPhoneNumber());
+        seenContacts.add(customer.getEmail());
+
+        return null;
+    }
+
+    private OnboardingRepository.CustomerBundle buildCustomerBundle(OnboardingRequest request,
+                                                                     Iterator<String> accountNumbers,
+                                                                     Integer depositTypeId) {
+        Customer customer = request.getCustomer();
+        customerService.assignDefaultSegment(customer);
+        List<Account> accounts = new ArrayList<>();
+        List<Transaction> deposits = new ArrayList<>();
+
+        for (InitialAccount initialAccount : request.getAccounts()) {
+            AccountType accountType = referenceData.getAccountTypeByName(initialAccount.getAccountType()).orElseThrow();
+            String accountName = AccountUtil.generateAccountName(
+                    customer.getFullName(), accountType.getType(), initialAccount.getCurrency());
+
+            Account account = new Account(null, accountNumbers.next(), accountName,
+                    initialAccount.getCurrency(), accountType.getId(), initialAccount.getMaturityDate());
+            account.setBalance(initialAccount.getInitialDeposit());
+            accounts.add(account);
+
+            // sender_id is filled in once the account has an ID
+            deposits.add(Transaction.createTransaction(
+                    null, null, depositTypeId, initialAccount.getInitialDeposit(),
+                    "Success", "Initial deposit for account opening"));
+        }
+
+        return new OnboardingRepository.CustomerBundle(customer, accounts, deposits);
     }
 
     /**
@@ -219,7 +405,7 @@ public class AccountService {
      */
     public List<String> getAvailableAccountTypes(Integer customerId) {
         List<String> availableTypes = new ArrayList<>();
-        List<AccountType> allTypes = accountRepository.findAllAccountTypes();
+        List<AccountType> allTypes = referenceData.getAllAccountTypes();
 
         for (AccountType type : allTypes) {
             String typeName = type.getType().toLowerCase();
@@ -256,7 +442,7 @@ public class AccountService {
      */
     public Map<String, String> getAccountLimitsSummary(Integer customerId) {
         Map<String, String> limits = new HashMap<>();
-        List<AccountType> allTypes = accountRepository.findAllAccountTypes();
+        List<AccountType> allTypes = referenceData.getAllAccountTypes();
 
         for (AccountType type : allTypes) {
             String typeName = type.getType().toLowerCase();
@@ -321,7 +507,11 @@ public class AccountService {
             return false;
         }
 
-        return accountRepository.updateBalance(cleanAccountNumber, newBalance);
+        boolean success = accountRepository.updateBalance(cleanAccountNumber, newBalance);
+        if (success) {
+            sessionStore.invalidateAccounts(account.getCustomerId());
+        }
+        return success;
     }
 
     /**
@@ -341,7 +531,11 @@ public class AccountService {
             return false;
         }
 
-        return accountRepository.updateBalanceById(accountId, newBalance);
+        boolean success = accountRepository.updateBalanceById(accountId, newBalance);
+        if (success) {
+            sessionStore.invalidateAccounts(account.getCustomerId());
+        }
+        return success;
     }
 
     /**
@@ -365,6 +559,7 @@ public class AccountService {
 
         boolean success = accountRepository.updateFreezeStatus(cleanAccountNumber, isFreeze);
         if (success) {
+            sessionStore.invalidateAccounts(account.getCustomerId());
             String action = isFreeze ? "frozen" : "unfrozen";
             System.out.println("✅ Account " + AccountUtil.formatAccountNumber(cleanAccountNumber) + " has been " + action + "!");
             return true;
@@ -374,6 +569,37 @@ public class AccountService {
         }
     }
 
+    /**
+     * Turn hot account mode on/off (for accounts receiving many concurrent credits)
+     */
+    public boolean updateHotStatus(String accountNumber, boolean isHot) {
+        String cleanAccountNumber = AccountUtil.unformatAccountNumber(accountNumber);
+
+        // Validate account exists
+        Optional<Account> accountOpt = accountRepository.findAccountByAccountNo(cleanAccountNumber);
+        if (accountOpt.isEmpty()) {
+            System.out.println("❌ Account not found!");
+            return false;
+        }
+
+        Account account = accountOpt.get();
+        if (account.isDeleted()) {
+            System.out.println("❌ Cannot modify deleted account!");
+            return false;
+        }
+
+        boolean success = accountRepository.updateHotStatus(cleanAccountNumber, isHot);
+        if (success) {
+            sessionStore.invalidateAccounts(account.getCustomerId());
+            String action = isHot ? "marked as hot" : "returned to normal";
+            System.out.println("✅ Account " + AccountUtil.formatAccountNumber(cleanAccountNumber) + " has been " + action + "!");
+            return true;
+        } else {
+            System.out.println("❌ Failed to update account hot status!");
+            return false;
+        }
+    }
+
     /**
      * Check if Fixed account can be withdrawn from (maturity check)
      */
@@ -401,14 +627,14 @@ public class AccountService {
      * Get all account types
      */
     public List<AccountType> getAllAccountTypes() {
-        return accountRepository.findAllAccountTypes();
+        return referenceData.getAllAccountTypes();
     }
 
     /**
      * Get account type by ID
      */
     public Optional<AccountType> getAccountTypeById(Integer id) {
-        return accountRepository.findAccountTypeById(id);
+        return referenceData.getAccountTypeById(id);
     }
 
     /**
@@ -463,4 +689,77 @@ public class AccountService {
     public List<Transaction> getAccountTransactions(Integer accountId) {
         return transactionRepository.findTransactionsByAccountId(accountId);
     }
-}
\ No newline at end of file
+
+    /**
+     * New customer plus the accounts to open for them
+     */
+    public static class OnboardingRequest {
+        private final Customer customer;
+        private final List<InitialAccount> accounts;
+
+        public OnboardingRequest(Customer customer, List<InitialAccount> accounts) {
+            this.customer = customer;
+            this.accounts = accounts != null ? accounts : List.of();
+        }
+
+        public Customer getCustomer() { return customer; }
+        public List<InitialAccount> getAccounts() { return accounts; }
+    }
+
+    /**
+     * Account to open during onboarding
+     */
+    public static class InitialAccount {
+        private final String accountType;
+        private final String currency;
+        private final BigDecimal initialDeposit;
+        private final LocalDate maturityDate;
+
+        public InitialAccount(String accountType, String currency, BigDecimal initialDeposit, LocalDate maturityDate) {
+            this.accountType = accountType;
+            this.currency = currency;
+            this.initialDeposit = initialDeposit;
+            this.maturityDate = maturityDate;
+        }
+
+        public String getAccountType() { return accountType; }
+        public String getCurrency() { return currency; }
+        public BigDecimal getInitialDeposit() { return initialDeposit; }
+        public LocalDate getMaturityDate() { return maturityDate; }
+    }
+
+    /**
+     * Outcome of one onboarding request
+     */
+    public static class OnboardingResult {
+        private final int index;
+        private final boolean success;
+        private final Integer customerId;
+        private final List<String> accountNumbers;
+        private final String error;
+
+        private OnboardingResult(int index, boolean success, Integer customerId,
+                                 List<String> accountNumbers, String error) {
+            this.index = index;
+            this.success = success;
+            this.customerId = customerId;
+            this.accountNumbers = accountNumbers;
+            this.error = error;
+        }
+
+        public static OnboardingResult success(int index, Integer customerId, List<String> accountNumbers) {
+            return new OnboardingResult(index, true, customerId, accountNumbers, null);
+        }
+
+        public static OnboardingResult failure(int index, String error) {
+            return new OnboardingResult(index, false, null, List.of(), error);
+        }
+
+        // Getters
+        public int getIndex() { return index; }
+        public boolean isSuccess() { return success; }
+        public Integer getCustomerId() { return customerId; }
+        public List<String> getAccountNumbers() { return accountNumbers; }
+        public String getError() { return error; }
+    }
+}
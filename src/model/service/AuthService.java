@@ -9,16 +9,29 @@ import java.util.Optional;
 
 public class AuthService {
     private final AuthRepository authRepository;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
     private static final int MAX_FAILED_ATTEMPTS = 3;
 
-    public AuthService() {
-        this.authRepository = new AuthRepository();
+    public AuthService(AuthRepository authRepository, PasswordHasher passwordHasher,
+                       LoginRateLimiter loginRateLimiter) {
+        this.authRepository = authRepository;
+        this.passwordHasher = passwordHasher;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     /**
      * Authenticate user login
      */
     public AuthResult login(String username, String password) {
+        return login(username, password, null);
+    }
+
+    /**
+     * Authenticate user login from a known client
+     * @param clientId remote address or session id used for throttling; may be null
+     */
+    public AuthResult login(String username, String password, String clientId) {
         try {
             // Validate input
             if (username == null || username.trim().isEmpty() ||
@@ -26,9 +39,17 @@ public class AuthService {
                 return AuthResult.failure("Username and password cannot be empty!");
             }
 
-            // Find user
+            // Throttle before any database or hashing work
+            long retryAfterMillis = loginRateLimiter.tryAcquire(username, clientId);
+            if (retryAfterMillis > 0) {
+                return AuthResult.throttled(retryAfterMillis);
+            }
+
+            // Find user. Unknown and locked users still pay for a hash, so
+            // response time doesn't tell which usernames exist
             Optional<User> userOpt = authRepository.findByUsername(username.trim());
             if (userOpt.isEmpty()) {
+                passwordHasher.verifyDummy(password);
                 return AuthResult.failure("Invalid username or password!");
             }
 
@@ -36,36 +57,62 @@ public class AuthService {
 
             // Check if account is locked
             if (user.getIsLocked()) {
+                passwordHasher.verify(password, user.getPassword());
                 return AuthResult.failure("Account is locked due to too many failed attempts. Please contact admin.");
             }
 
             // Verify password
-            if (!PasswordUtil.verifyPassword(password, user.getPassword())) {
-                // Increment failed attempts
-                int newAttempts = user.getFailedAttempts() + 1;
-                boolean shouldLock = newAttempts >= MAX_FAILED_ATTEMPTS;
-
-                authRepository.updateFailedAttempts(username, newAttempts, shouldLock);
-
-                if (shouldLock) {
+            if (!passwordHasher.verify(password, user.getPassword())) {
+                // Increment (and lock at the limit) in the database, so concurrent attempts count correctly
+                AuthRepository.FailedAttempt attempt =
+                        authRepository.recordFailedAttempt(user.getId(), MAX_FAILED_ATTEMPTS);
+
+                // ALREADY_LOCKED means another attempt locked it first
+                if (attempt.getStatus() == AuthRepository.FailedAttempt.Status.ERROR) {
+                    return AuthResult.failure("An error occurred during login. Please try again.");
+                } else if (attempt.isLocked()) {
                     return AuthResult.failure("Account locked due to too many failed attempts. Please contact admin.");
                 } else {
-                    int remainingAttempts = MAX_FAILED_ATTEMPTS - newAttempts;
+                    int remainingAttempts = MAX_FAILED_ATTEMPTS - attempt.getAttempts();
                     return AuthResult.failure("Invalid username or password! " + remainingAttempts + " attempts remaining.");
                 }
             }
 
-            // Successful login - reset failed attempts
-            authRepository.resetFailedAttempts(username);
+            // Successful login - reset failed attempts (only costs a write when there were any)
+            if (user.getFailedAttempts() > 0) {
+                authRepository.clearFailedAttempts(user.getId());
+                user.setFailedAttempts(0);
+            }
+
+            // Upgrade legacy or outdated hashes while we have the plain password
+            if (PasswordUtil.needsRehash(user.getPassword())) {
+                rehashPassword(user, password);
+            }
 
             return AuthResult.success(user);
 
+        } catch (PasswordHasher.HasherBusyException e) {
+            return AuthResult.failure("The system is busy. Please try again in a moment.");
         } catch (Exception e) {
             System.err.println("Error during login: " + e.getMessage());
             return AuthResult.failure("An error occurred during login. Please try again.");
         }
     }
 
+    /**
+     * Store a fresh hash for a user who just proved their password; best effort
+     */
+    private void rehashPassword(User user, String password) {
+        try {
+            String newHash = passwordHasher.hash(password);
+            if (authRepository.updatePasswordHash(user.getId(), user.getPassword(), newHash)) {
+                user.setPassword(newHash);
+            }
+        } catch (PasswordHasher.HasherBusyException e) {
+            // Try again on the next login
+        }
+    }
+
     /**
      * Register new customer user
      */
@@ -91,7 +138,7 @@ public class AuthService {
             }
 
             // Hash password
-            String hashedPassword = PasswordUtil.hashPassword(password);
+            String hashedPassword = passwordHasher.hash(password);
 
             // Create new customer user (customer_id will be null initially)
             User newUser = new User(
@@ -128,7 +175,7 @@ public class AuthService {
                 return false; // Admin already exists
             }
 
-            String hashedPassword = PasswordUtil.hashPassword(password);
+            String hashedPassword = passwordHasher.hash(password);
 
             User adminUser = new User(
                     null,                    // id
@@ -170,11 +217,17 @@ public class AuthService {
         private final boolean success;
         private final String message;
         private final User user;
+        private final long retryAfterMillis;
 
         private AuthResult(boolean success, String message, User user) {
+            this(success, message, user, 0);
+        }
+
+        private AuthResult(boolean success, String message, User user, long retryAfterMillis) {
             this.success = success;
             this.message = message;
             this.user = user;
+            this.retryAfterMillis = retryAfterMillis;
         }
 
         public static AuthResult success(User user) {
@@ -189,9 +242,17 @@ public class AuthService {
             return new AuthResult(false, message, null);
         }
 
+        public static AuthResult throttled(long retryAfterMillis) {
+            long seconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+            return new AuthResult(false, "Too many login attempts. Please try again in " + seconds + " seconds.",
+                                  null, retryAfterMillis);
+        }
+
         // Getters
         public boolean isSuccess() { return success; }
         public String getMessage() { return message; }
         public User getUser() { return user; }
+        public boolean isThrottled() { return retryAfterMillis > 0; }
+        public long getRetryAfterMillis() { return retryAfterMillis; }
     }
 }
\ No newline at end of file
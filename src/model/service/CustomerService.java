@@ -6,14 +6,24 @@ import model.repository.CustomerRepository;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class CustomerService {
-    private final CustomerRepository customerRepository;
+    // Segment for new customers who weren't given one
+    private static final String DEFAULT_SEGMENT = "Retail";
 
-    public CustomerService() {
-        this.customerRepository = new CustomerRepository();
+    private final CustomerRepository customerRepository;
+    private final SessionStore sessionStore;
+    private final ReferenceData referenceData;
+
+    public CustomerService(CustomerRepository customerRepository, SessionStore sessionStore,
+                           ReferenceData referenceData) {
+        this.customerRepository = customerRepository;
+        this.sessionStore = sessionStore;
+        this.referenceData = referenceData;
     }
 
     /**
@@ -27,26 +37,37 @@ public class CustomerService {
             return false;
         }
 
-        // Check if phone number already exists
-        if (customerRepository.phoneNumberExists(customer.getPhoneNumber(), null)) {
-            System.out.println("❌ Phone number already exists!");
+        try {
+            assignDefaultSegment(customer);
+        } catch (IllegalStateException e) {
+            System.out.println("❌ " + e.getMessage());
             return false;
         }
 
-        // Check if email already exists
-        if (customerRepository.emailExists(customer.getEmail(), null)) {
-            System.out.println("❌ Email already exists!");
-            return false;
-        }
-
-        // Create customer
-        boolean success = customerRepository.create(customer);
-        if (success) {
+        // Create customer; duplicate phone numbers/emails are rejected by unique indexes
+        CustomerRepository.SaveResult result = customerRepository.create(customer);
+        if (result == CustomerRepository.SaveResult.SUCCESS) {
             System.out.println("✅ Customer profile created successfully!");
             return true;
-        } else {
-            System.out.println("❌ Failed to create customer profile!");
-            return false;
+        }
+
+        System.out.println(switch (result) {
+            case PHONE_NUMBER_EXISTS -> "❌ Phone number already exists!";
+            case EMAIL_EXISTS -> "❌ Email already exists!";
+            default -> "❌ Failed to create customer profile!";
+        });
+        return false;
+    }
+
+    /**
+     * Put a new customer in the default segment unless they already have one
+     * @throws IllegalStateException if the default segment is missing from reference data
+     */
+    public void assignDefaultSegment(Customer customer) {
+        if (customer.getCustomerSegmentId() == null) {
+            customer.setCustomerSegmentId(referenceData.getCustomerSegmentId(DEFAULT_SEGMENT)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Customer segment '" + DEFAULT_SEGMENT + "' is not configured")));
         }
     }
 
@@ -82,27 +103,27 @@ public class CustomerService {
             return false;
         }
 
-        // Check if phone number already exists (excluding current customer)
-        if (customerRepository.phoneNumberExists(customer.getPhoneNumber(), customer.getId())) {
-            System.out.println("❌ Phone number already exists!");
-            return false;
-        }
-
-        // Check if email already exists (excluding current customer)
-        if (customerRepository.emailExists(customer.getEmail(), customer.getId())) {
-            System.out.println("❌ Email already exists!");
-            return false;
-        }
-
-        // Update customer
-        boolean success = customerRepository.update(customer);
-        if (success) {
+        // Update customer; duplicate phone numbers/emails are rejected by unique indexes
+        CustomerRepository.SaveResult result = customerRepository.update(customer);
+        if (result == CustomerRepository.SaveResult.SUCCESS) {
+            sessionStore.invalidateCustomer(customer.getId());
             System.out.println("✅ Customer profile updated successfully!");
             return true;
-        } else {
-            System.out.println("❌ Failed to update customer profile!");
-            return false;
         }
+
+        System.out.println(switch (result) {
+            case PHONE_NUMBER_EXISTS -> "❌ Phone number already exists!";
+            case EMAIL_EXISTS -> "❌ Email already exists!";
+            default -> "❌ Failed to update customer profile!";
+        });
+        return false;
+    }
+
+    /**
+     * Find which of the given phone numbers and emails are already registered
+     */
+    public Set<String> findExistingContacts(Collection<String> phoneNumbers, Collection<String> emails) {
+        return customerRepository.findExistingContacts(phoneNumbers, emails);
     }
 
     /**
@@ -124,6 +145,8 @@ public class CustomerService {
 
         boolean success = customerRepository.delete(customerId);
         if (success) {
+            sessionStore.invalidateCustomer(customerId);
+            sessionStore.invalidateAccounts(customerId);
             System.out.println("✅ Customer deleted successfully!");
             return true;
         } else {
@@ -208,7 +231,7 @@ public class CustomerService {
     /**
      * Validate customer data
      */
-    private String validateCustomerData(Customer customer) {
+    String validateCustomerData(Customer customer) {
         // Required fields validation
         if (customer.getFullName() == null || customer.getFullName().trim().isEmpty()) {
             return "Full name is required";
@@ -0,0 +1,165 @@
+// model/service/DailySpendCache.java
+package model.service;
+
+import model.repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-account running total of today's outgoing amounts.
+ * An account's total is loaded from the database the first time it is needed
+ * on a given business date; after that, debits reserve their amount with
+ * tryReserve(), which checks the limit and adds to the total in one atomic
+ * step, so limit checks cost no I/O and concurrent debits can't together
+ * overshoot. The whole day is swapped out atomically on the first access
+ * after midnight.
+ * A failed load is reported to the caller and never cached.
+ * Only debits reserved through this JVM are seen after warm-up.
+ */
+public class DailySpendCache {
+    private final TransactionRepository transactionRepository;
+    private final AtomicReference<DayTotals> today;
+
+    public DailySpendCache(TransactionRepository transactionRepository) {
+        this.transactionRepository = transactionRepository;
+        this.today = new AtomicReference<>(new DayTotals(LocalDate.now()));
+    }
+
+    /**
+     * Get today's total outgoing amount for an account, including reservations
+     * @return empty if the total is not cached and could not be loaded
+     */
+    public Optional<BigDecimal> getSpentToday(Integer accountId) {
+        return spentOn(currentDay(), accountId);
+    }
+
+    /**
+     * Reserve an outgoing amount against an account's daily limit.
+     * The reservation counts as spent until released; release it if the debit
+     * doesn't go through.
+     */
+    public Reservation tryReserve(Integer accountId, BigDecimal amount, BigDecimal limit) {
+        DayTotals totals = currentDay();
+        if (spentOn(totals, accountId).isEmpty()) {
+            return Reservation.unavailable();
+        }
+
+        // Loaded totals stay cached for the day, so the entry is present
+        Reservation[] outcome = new Reservation[1];
+        totals.spent.computeIfPresent(accountId, (id, spent) -> {
+            BigDecimal after = spent.add(amount);
+            if (after.compareTo(limit) > 0) {
+                outcome[0] = Reservation.limitExceeded(spent);
+                return spent;
+            }
+            outcome[0] = Reservation.reserved(totals, accountId, amount, spent);
+            return after;
+        });
+        return outcome[0];
+    }
+
+    /**
+     * Drop all cached totals
+     */
+    public void clear() {
+        today.set(new DayTotals(LocalDate.now()));
+    }
+
+    /**
+     * Get an account's total for the given day, loading it on first use.
+     * Concurrent first loads all query; the first to finish is cached and the
+     * others use it, since reservations may already have been added to it.
+     */
+    private Optional<BigDecimal> spentOn(DayTotals totals, Integer accountId) {
+        BigDecimal cached = totals.spent.get(accountId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Query outside any map lock
+        Optional<BigDecimal> loaded = transactionRepository.sumOutgoingAmount(
+                accountId, totals.date.atStartOfDay(), totals.date.plusDays(1).atStartOfDay());
+        return loaded.map(value -> {
+            BigDecimal existing = totals.spent.putIfAbsent(accountId, value);
+            return existing != null ? existing : value;
+        });
+    }
+
+    /**
+     * Get the totals for the current business date, rolling over if the date changed
+     */
+    private DayTotals currentDay() {
+        LocalDate date = LocalDate.now();
+        DayTotals totals = today.get();
+        while (!totals.date.equals(date)) {
+            DayTotals next = new DayTotals(date);
+            if (today.compareAndSet(totals, next)) {
+                return next;
+            }
+            totals = today.get();
+        }
+        return totals;
+    }
+
+    private static final class DayTotals {
+        private final LocalDate date;
+        private final ConcurrentHashMap<Integer, BigDecimal> spent = new ConcurrentHashMap<>();
+
+        private DayTotals(LocalDate date) {
+            this.date = date;
+        }
+    }
+
+    /**
+     * Outcome of tryReserve()
+     */
+    public static final class Reservation {
+        public enum Status {
+            RESERVED, LIMIT_EXCEEDED, UNAVAILABLE
+        }
+
+        private final Status status;
+        private final BigDecimal spentToday;    // Before this reservation - null if unavailable
+        private final DayTotals totals;         // Day the amount was added to - null unless reserved
+        private final Integer accountId;
+        private final BigDecimal amount;
+
+        private Reservation(Status status, BigDecimal spentToday, DayTotals totals,
+                            Integer accountId, BigDecimal amount) {
+            this.status = status;
+            this.spentToday = spentToday;
+            this.totals = totals;
+            this.accountId = accountId;
+            this.amount = amount;
+        }
+
+        private static Reservation reserved(DayTotals totals, Integer accountId, BigDecimal amount, BigDecimal spentToday) {
+            return new Reservation(Status.RESERVED, spentToday, totals, accountId, amount);
+        }
+
+        private static Reservation limitExceeded(BigDecimal spentToday) {
+            return new Reservation(Status.LIMIT_EXCEEDED, spentToday, null, null, null);
+        }
+
+        private static Reservation unavailable() {
+            return new Reservation(Status.UNAVAILABLE, null, null, null, null);
+        }
+
+        /**
+         * Give a granted amount back, for a debit that didn't go through
+         */
+        public void release() {
+            if (status == Status.RESERVED) {
+                totals.spent.computeIfPresent(accountId, (id, spent) -> spent.subtract(amount));
+            }
+        }
+
+        // Getters
+        public Status getStatus() { return status; }
+        public BigDecimal getSpentToday() { return spentToday; }
+    }
+}
@@ -0,0 +1,93 @@
+// model/service/LedgerService.java
+package model.service;
+
+import model.repository.AccountRepository;
+import model.repository.LedgerRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger checkpointing and reconciliation.
+ * Checkpoints run periodically in the background so an account's ledger
+ * balance only ever has to sum the postings since its last checkpoint.
+ * The same thread folds hot-account credit slots back into their balances.
+ */
+public class LedgerService {
+    private static final long DEFAULT_CHECKPOINT_INTERVAL_MINUTES = 5;
+    private static final long HOT_FOLD_INTERVAL_SECONDS = 10;
+
+    private final LedgerRepository ledgerRepository;
+    private final AccountRepository accountRepository;
+    private ScheduledExecutorService checkpointer;
+
+    public LedgerService(LedgerRepository ledgerRepository, AccountRepository accountRepository) {
+        this.ledgerRepository = ledgerRepository;
+        this.accountRepository = accountRepository;
+    }
+
+    /**
+     * Start periodic checkpointing (no-op if already running)
+     */
+    public synchronized void startCheckpointing() {
+        startCheckpointing(DEFAULT_CHECKPOINT_INTERVAL_MINUTES);
+    }
+
+    public synchronized void startCheckpointing(long intervalMinutes) {
+        if (checkpointer != null) {
+            return;
+        }
+        checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(this::checkpoint, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        checkpointer.scheduleWithFixedDelay(this::foldHotAccounts,
+                HOT_FOLD_INTERVAL_SECONDS, HOT_FOLD_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop periodic checkpointing
+     */
+    public synchronized void stopCheckpointing() {
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+            checkpointer = null;
+        }
+    }
+
+    /**
+     * Checkpoint all accounts with postings since their last checkpoint
+     * @return number of accounts checkpointed, or -1 on error
+     */
+    public int checkpoint() {
+        return ledgerRepository.checkpointBalances();
+    }
+
+    /**
+     * Fold hot-account credit slots into their main balances
+     * @return number of accounts folded
+     */
+    public int foldHotAccounts() {
+        return accountRepository.foldAllHotCredits();
+    }
+
+    /**
+     * Get an account's balance as derived from the ledger
+     */
+    public Optional<BigDecimal> getLedgerBalance(Integer accountId) {
+        return ledgerRepository.findLedgerBalance(accountId);
+    }
+
+    /**
+     * Find accounts whose stored balance disagrees with the ledger
+     */
+    public List<LedgerRepository.BalanceMismatch> reconcile() {
+        return ledgerRepository.findBalanceMismatches();
+    }
+}
@@ -0,0 +1,178 @@
+// model/service/LoginRateLimiter.java
+package model.service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttles login attempts per username and per client before any database
+ * or hashing work is done, and wrong transaction PINs per customer.
+ * Each key is a token bucket kept as a single "theoretical arrival time"
+ * (GCRA): an attempt is allowed while that time is no more than the burst
+ * ahead of now, and pushes it one refill interval further. Checking is one
+ * CAS on an AtomicLong, with no locks.
+ * A bucket whose time has fallen behind now is full again and carries no
+ * state, so it is swept out once the key count reaches its cap. Buckets
+ * still ahead of now are never dropped - that would reset a throttle - so
+ * if the cap is still reached (a spray of distinct keys) new keys are
+ * refused until buckets refill, rather than growing memory.
+ */
+public class LoginRateLimiter {
+    // Per username: 5 attempts, then one every 20 seconds
+    private static final int USERNAME_BURST = 5;
+    private static final long USERNAME_REFILL_SECONDS = 20;
+    // Per client: 10 attempts, then one every 2 seconds
+    private static final int CLIENT_BURST = 10;
+    private static final long CLIENT_REFILL_SECONDS = 2;
+    // Per customer: 3 wrong PINs, then one every minute
+    private static final int PIN_BURST = 3;
+    private static final long PIN_REFILL_SECONDS = 60;
+    private static final int DEFAULT_MAX_KEYS = 100_000;
+
+    private final Limiter usernames;
+    private final Limiter clients;
+    private final Limiter pins;
+
+    public LoginRateLimiter() {
+        this(USERNAME_BURST, USERNAME_REFILL_SECONDS, CLIENT_BURST, CLIENT_REFILL_SECONDS,
+             PIN_BURST, PIN_REFILL_SECONDS, TimeUnit.SECONDS, DEFAULT_MAX_KEYS);
+    }
+
+    public LoginRateLimiter(int usernameBurst, long usernameRefill, int clientBurst, long clientRefill,
+                            int pinBurst, long pinRefill, TimeUnit unit, int maxKeys) {
+        this.usernames = new Limiter(usernameBurst, unit.toNanos(usernameRefill), maxKeys);
+        this.clients = new Limiter(clientBurst, unit.toNanos(clientRefill), maxKeys);
+        this.pins = new Limiter(pinBurst, unit.toNanos(pinRefill), maxKeys);
+    }
+
+    /**
+     * Take one attempt for this username and client
+     * @param clientId remote address or session id; null skips the client check
+     * @return 0 if the attempt may go ahead, otherwise milliseconds until it may be retried
+     */
+    public long tryAcquire(String username, String clientId) {
+        long now = System.nanoTime();
+
+        if (clientId != null) {
+            long wait = clients.tryAcquire(clientId, now);
+            if (wait > 0) {
+                return toMillis(wait);
+            }
+        }
+        if (username != null) {
+            long wait = usernames.tryAcquire(username.trim().toLowerCase(Locale.ROOT), now);
+            if (wait > 0) {
+                return toMillis(wait);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Take one PIN attempt for a customer. Call releasePin() when the PIN was
+     * right, so only wrong PINs use up the allowance.
+     * @return 0 if the attempt may go ahead, otherwise milliseconds until it may be retried
+     */
+    public long tryAcquirePin(Integer customerId) {
+        long wait = pins.tryAcquire(String.valueOf(customerId), System.nanoTime());
+        return wait > 0 ? toMillis(wait) : 0;
+    }
+
+    /**
+     * Give back the attempt taken for a correct PIN
+     */
+    public void releasePin(Integer customerId) {
+        pins.release(String.valueOf(customerId), System.nanoTime());
+    }
+
+    /**
+     * Number of usernames, clients and PIN counters currently tracked
+     */
+    public int size() {
+        return usernames.cells.size() + clients.cells.size() + pins.cells.size();
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private static final class Limiter {
+        private final long intervalNanos;
+        private final long burstNanos; // how far ahead of now a bucket may run
+        private final int maxKeys;
+        private final ConcurrentHashMap<String, AtomicLong> cells = new ConcurrentHashMap<>();
+        private final AtomicBoolean evicting = new AtomicBoolean();
+
+        private Limiter(int burst, long intervalNanos, int maxKeys) {
+            this.intervalNanos = intervalNanos;
+            this.burstNanos = (burst - 1) * intervalNanos;
+            this.maxKeys = maxKeys;
+        }
+
+        /**
+         * @return 0 if allowed, otherwise nanoseconds until the next attempt would be
+         */
+        private long tryAcquire(String key, long now) {
+            AtomicLong cell = cells.get(key);
+            if (cell == null) {
+                if (cells.size() >= maxKeys) {
+                    evict(now);
+                    if (cells.size() >= maxKeys) {
+                        // Full of live buckets: fail closed
+                        return intervalNanos;
+                    }
+                }
+                cell = cells.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            while (true) {
+                long stored = cell.get();
+                long arrival = stored - now > 0 ? stored : now;
+                long ahead = arrival - now;
+                if (ahead > burstNanos) {
+                    return ahead - burstNanos;
+                }
+                if (cell.compareAndSet(stored, arrival + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Undo one successful tryAcquire
+         */
+        private void release(String key, long now) {
+            AtomicLong cell = cells.get(key);
+            if (cell == null) {
+                return;
+            }
+            while (true) {
+                long stored = cell.get();
+                if (stored - now <= 0) {
+                    return; // already full
+                }
+                long released = stored - intervalNanos;
+                if (cell.compareAndSet(stored, released - now > 0 ? released : now)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Drop full buckets; they behave exactly like missing ones
+         */
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                cells.values().removeIf(cell -> cell.get() - now <= 0);
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+// model/service/PasswordHasher.java
+package model.service;
+
+import util.PasswordUtil;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing/verification on a small dedicated pool.
+ * PBKDF2 is deliberately CPU-heavy; keeping it on a bounded set of threads
+ * with a bounded queue means a login storm queues (and beyond that is
+ * refused) instead of taking every core away from transaction work.
+ * Callers block until their hash is done - from a virtual thread that
+ * only parks it.
+ */
+public class PasswordHasher {
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+    private final ThreadPoolExecutor workers;
+    private final long timeoutMillis;
+    // Hash of a random password, verified against when there is no real hash
+    // so that a miss costs as much as a wrong password
+    private volatile String dummyHash;
+
+    /**
+     * Thrown when the pool is saturated or a hash did not finish in time
+     */
+    public static class HasherBusyException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        public HasherBusyException(String message) {
+            super(message);
+        }
+    }
+
+    public PasswordHasher() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public PasswordHasher(int threads, int queueCapacity, long timeoutMillis) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Verify a password against a stored hash
+     */
+    public boolean verify(String password, String storedHash) throws HasherBusyException {
+        return run(() -> PasswordUtil.verifyPassword(password, storedHash));
+    }
+
+    /**
+     * Spend the same work as verify() without a stored hash to check against;
+     * always fails
+     */
+    public void verifyDummy(String password) throws HasherBusyException {
+        String hash = dummyHash;
+        if (hash == null) {
+            // A race only hashes a second random password
+            hash = hash(PasswordUtil.generatePassword(16));
+            dummyHash = hash;
+        }
+        verify(password, hash);
+    }
+
+    /**
+     * Hash a password with the current work factor
+     */
+    public String hash(String password) throws HasherBusyException {
+        return run(() -> PasswordUtil.hashPassword(password));
+    }
+
+    private <T> T run(Callable<T> task) throws HasherBusyException {
+        Future<T> future;
+        try {
+            future = workers.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new HasherBusyException("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HasherBusyException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HasherBusyException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stop the worker threads
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,166 @@
+// model/service/ReferenceData.java
+package model.service;
+
+import model.entity.AccountType;
+import model.repository.ReferenceDataRepository;
+
+import java.util.*;
+
+/**
+ * In-memory registry of lookup tables (transaction types, account types,
+ * customer segments, bill categories).
+ * These rows are seeded at startup and never change while the app runs, so
+ * they are loaded once and served from immutable maps. Call reload() after
+ * changing them in the database.
+ */
+public class ReferenceData {
+    private final ReferenceDataRepository referenceDataRepository;
+    private volatile Snapshot snapshot;
+
+    public ReferenceData(ReferenceDataRepository referenceDataRepository) {
+        this.referenceDataRepository = referenceDataRepository;
+    }
+
+    /**
+     * Load (or re-load) all lookup tables from the database
+     */
+    public synchronized void reload() {
+        Snapshot loaded = new Snapshot(
+                new NameTable(referenceDataRepository.findAllTransactionTypes()),
+                new NameTable(referenceDataRepository.findAllAccountTypes()),
+                new NameTable(referenceDataRepository.findAllCustomerSegments()),
+                new NameTable(referenceDataRepository.findAllBillCategories())
+        );
+
+        if (loaded.isEmpty()) {
+            // Most likely the database was unreachable; try again on next access
+            System.err.println("⚠️ Reference data could not be loaded.");
+            return;
+        }
+        snapshot = loaded;
+    }
+
+    // ========== TRANSACTION TYPES ==========
+
+    public Optional<Integer> getTransactionTypeId(String typeName) {
+        return current().transactionTypes.idOf(typeName);
+    }
+
+    public Optional<String> getTransactionTypeName(Integer id) {
+        return current().transactionTypes.nameOf(id);
+    }
+
+    // ========== ACCOUNT TYPES ==========
+
+    public Optional<AccountType> getAccountTypeByName(String typeName) {
+        NameTable accountTypes = current().accountTypes;
+        return accountTypes.idOf(typeName).map(id -> toAccountType(id, accountTypes.nameOf(id).orElse(typeName)));
+    }
+
+    public Optional<AccountType> getAccountTypeById(Integer id) {
+        return current().accountTypes.nameOf(id).map(name -> toAccountType(id, name));
+    }
+
+    /**
+     * Get all account types ordered by ID
+     */
+    public List<AccountType> getAllAccountTypes() {
+        List<AccountType> accountTypes = new ArrayList<>();
+        current().accountTypes.namesById.forEach((id, name) -> accountTypes.add(toAccountType(id, name)));
+        return accountTypes;
+    }
+
+    // ========== CUSTOMER SEGMENTS ==========
+
+    public Optional<Integer> getCustomerSegmentId(String segment) {
+        return current().customerSegments.idOf(segment);
+    }
+
+    // ========== BILL CATEGORIES ==========
+
+    public Optional<Integer> getBillCategoryId(String categoryName) {
+        return current().billCategories.idOf(categoryName);
+    }
+
+    public Optional<String> getBillCategoryName(Integer id) {
+        return current().billCategories.nameOf(id);
+    }
+
+    /**
+     * Get all bill category names ordered by ID
+     */
+    public List<String> getAllBillCategoryNames() {
+        return List.copyOf(current().billCategories.namesById.values());
+    }
+
+    // ========== INTERNALS ==========
+
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        if (loaded == null) {
+            reload();
+            loaded = snapshot;
+        }
+        return loaded != null ? loaded : Snapshot.EMPTY;
+    }
+
+    /**
+     * Entities are mutable, so every caller gets its own copy
+     */
+    private AccountType toAccountType(Integer id, String name) {
+        AccountType accountType = new AccountType(name);
+        accountType.setId(id);
+        return accountType;
+    }
+
+    /**
+     * Immutable id <-> name lookup, names matched case-insensitively
+     */
+    private static final class NameTable {
+        private final Map<Integer, String> namesById;
+        private final Map<String, Integer> idsByName;
+
+        private NameTable(Map<Integer, String> values) {
+            // Keep the repository's id order for listings
+            this.namesById = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+            Map<String, Integer> byName = new HashMap<>();
+            values.forEach((id, name) -> byName.put(normalize(name), id));
+            this.idsByName = Map.copyOf(byName);
+        }
+
+        private Optional<Integer> idOf(String name) {
+            return name == null ? Optional.empty() : Optional.ofNullable(idsByName.get(normalize(name)));
+        }
+
+        private Optional<String> nameOf(Integer id) {
+            return id == null ? Optional.empty() : Optional.ofNullable(namesById.get(id));
+        }
+
+        private static String normalize(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(
+                new NameTable(Map.of()), new NameTable(Map.of()), new NameTable(Map.of()), new NameTable(Map.of()));
+
+        private final NameTable transactionTypes;
+        private final NameTable accountTypes;
+        private final NameTable customerSegments;
+        private final NameTable billCategories;
+
+        private Snapshot(NameTable transactionTypes, NameTable accountTypes,
+                         NameTable customerSegments, NameTable billCategories) {
+            this.transactionTypes = transactionTypes;
+            this.accountTypes = accountTypes;
+            this.customerSegments = customerSegments;
+            this.billCategories = billCategories;
+        }
+
+        private boolean isEmpty() {
+            return transactionTypes.namesById.isEmpty() && accountTypes.namesById.isEmpty()
+                    && customerSegments.namesById.isEmpty() && billCategories.namesById.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+// model/service/SessionStore.java
+package model.service;
+
+import model.entity.Account;
+import model.entity.Customer;
+import model.entity.User;
+import model.repository.AccountRepository;
+import model.repository.CustomerRepository;
+import util.AccountUtil;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Signed-in sessions behind opaque tokens.
+ * Each session caches its customer profile and account list, loaded on first
+ * use, so menu navigation and API calls within a session don't go back to
+ * the database. Services that change a customer or their accounts call
+ * invalidateCustomer()/invalidateAccounts() after the write commits; every
+ * session of that customer then reloads on its next read.
+ * Sessions expire after a sliding idle timeout (-Dsession.ttl.minutes,
+ * default 15) and are swept out lazily.
+ */
+public class SessionStore {
+    private static final int TOKEN_BYTES = 32;
+    private static final long DEFAULT_TTL_MINUTES = Long.getLong("session.ttl.minutes", 15);
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final CustomerRepository customerRepository;
+    private final AccountRepository accountRepository;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    // Customer id -> that customer's live sessions, for invalidation
+    private final ConcurrentHashMap<Integer, Set<Session>> sessionsByCustomer = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurge = new AtomicLong(System.nanoTime() + PURGE_INTERVAL_NANOS);
+    private final SecureRandom tokenRandom = new SecureRandom();
+
+    public SessionStore(CustomerRepository customerRepository, AccountRepository accountRepository) {
+        this(customerRepository, accountRepository, DEFAULT_TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public SessionStore(CustomerRepository customerRepository, AccountRepository accountRepository,
+                        long ttl, TimeUnit unit) {
+        this.customerRepository = customerRepository;
+        this.accountRepository = accountRepository;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * Open a session for a user who just logged in
+     */
+    public Session create(User user) {
+        return create(user, null);
+    }
+
+    /**
+     * Open a session, seeding it with a customer profile the caller already holds
+     */
+    public Session create(User user, Customer customer) {
+        purgeExpiredIfDue();
+
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+        tokenRandom.nextBytes(tokenBytes);
+        Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes), user);
+        if (customer != null && customer.getId() != null && customer.getId().equals(user.getCustomerId())) {
+            session.customer = new Cached<>(0, customer);
+        }
+
+        sessions.put(session.token, session);
+        index(session);
+        return session;
+    }
+
+    /**
+     * Look up a live session and extend its idle timeout
+     */
+    public Optional<Session> get(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        if (session.isExpired(now)) {
+            remove(session);
+            return Optional.empty();
+        }
+        session.lastAccess = now;
+        return Optional.of(session);
+    }
+
+    /**
+     * End a session (logout)
+     */
+    public void invalidate(String token) {
+        if (token == null) {
+            return;
+        }
+        Session session = sessions.get(token);
+        if (session != null) {
+            remove(session);
+        }
+    }
+
+    /**
+     * A customer's profile changed - their sessions reload it on next use
+     */
+    public void invalidateCustomer(Integer customerId) {
+        forEachSession(customerId, session -> session.customerGeneration.incrementAndGet());
+    }
+
+    /**
+     * A customer's accounts changed (balance, status, new account) - their
+     * sessions reload the account list on next use
+     */
+    public void invalidateAccounts(Integer customerId) {
+        forEachSession(customerId, session -> session.accountsGeneration.incrementAndGet());
+    }
+
+    /**
+     * Drop expired sessions
+     */
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        for (Session session : sessions.values()) {
+            if (session.isExpired(now)) {
+                remove(session);
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void purgeExpiredIfDue() {
+        long due = nextPurge.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextPurge.compareAndSet(due, now + PURGE_INTERVAL_NANOS)) {
+            purgeExpired();
+        }
+    }
+
+    private void forEachSession(Integer customerId, Consumer<Session> action) {
+        if (customerId == null) {
+            return;
+        }
+        Set<Session> customerSessions = sessionsByCustomer.get(customerId);
+        if (customerSessions != null) {
+            customerSessions.forEach(action);
+        }
+    }
+
+    private void index(Session session) {
+        Integer customerId = session.user.getCustomerId();
+        if (customerId != null) {
+            sessionsByCustomer.computeIfAbsent(customerId, id -> ConcurrentHashMap.newKeySet()).add(session);
+        }
+    }
+
+    private void unindex(Session session, Integer customerId) {
+        if (customerId != null) {
+            sessionsByCustomer.computeIfPresent(customerId, (id, set) -> {
+                set.remove(session);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private void remove(Session session) {
+        if (sessions.remove(session.token, session)) {
+            unindex(session, session.user.getCustomerId());
+        }
+    }
+
+    /**
+     * Value loaded at a given invalidation generation
+     */
+    private record Cached<T>(long generation, T value) {
+    }
+
+    /**
+     * One signed-in user. Safe to share between threads; a load racing an
+     * invalidation is returned to its caller but not kept.
+     */
+    public final class Session {
+        private final String token;
+        private final User user;
+        private volatile long lastAccess = System.nanoTime();
+
+        private final AtomicLong customerGeneration = new AtomicLong();
+        private final AtomicLong accountsGeneration = new AtomicLong();
+        private volatile Cached<Customer> customer;
+        private volatile Cached<List<Account>> accounts;
+
+        private Session(String token, User user) {
+            this.token = token;
+            this.user = user;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        /**
+         * The user's customer profile, if they have one
+         */
+        public Optional<Customer> getCustomer() {
+            if (user.getCustomerId() == null) {
+                return Optional.empty();
+            }
+            Cached<Customer> cached = customer;
+            long generation = customerGeneration.get();
+            if (cached != null && cached.generation == generation) {
+                return Optional.of(cached.value);
+            }
+
+            Optional<Customer> loaded = customerRepository.findById(user.getCustomerId());
+            loaded.ifPresent(value -> {
+                if (customerGeneration.get() == generation) {
+                    customer = new Cached<>(generation, value);
+                }
+            });
+            return loaded;
+        }
+
+        /**
+         * All of the customer's accounts (unmodifiable)
+         */
+        public List<Account> getAccounts() {
+            if (user.getCustomerId() == null) {
+                return List.of();
+            }
+            Cached<List<Account>> cached = accounts;
+            long generation = accountsGeneration.get();
+            if (cached != null && cached.generation == generation) {
+                return cached.value;
+            }
+
+            List<Account> loaded = List.copyOf(accountRepository.findAccountsByCustomerId(user.getCustomerId()));
+            if (accountsGeneration.get() == generation) {
+                accounts = new Cached<>(generation, loaded);
+            }
+            return loaded;
+        }
+
+        /**
+         * The customer's active accounts only
+         */
+        public List<Account> getActiveAccounts() {
+            return getAccounts().stream()
+                    .filter(Account::isActive)
+                    .toList();
+        }
+
+        /**
+         * One of the customer's own accounts by number
+         */
+        public Optional<Account> findAccount(String accountNo) {
+            if (accountNo == null) {
+                return Optional.empty();
+            }
+            String cleanAccountNumber = AccountUtil.unformatAccountNumber(accountNo);
+            return getAccounts().stream()
+                    .filter(account -> cleanAccountNumber.equals(account.getAccountNo()))
+                    .findFirst();
+        }
+
+        public boolean hasAccounts() {
+            return !getAccounts().isEmpty();
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastAccess > ttlNanos;
+        }
+    }
+}
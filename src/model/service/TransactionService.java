@@ -7,13 +7,16 @@ import model.repository.TransactionRepository;
 import model.repository.AccountRepository;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final DailySpendCache dailySpendCache;
+    private final ReferenceData referenceData;
+    private final SessionStore sessionStore;
 
     // Exchange rates (static as requested)
     private static final BigDecimal USD_TO_KHR_RATE = new BigDecimal("4100");
@@ -23,41 +26,42 @@ public class TransactionService {
     private static final BigDecimal SAVING_DAILY_LIMIT_USD = new BigDecimal("5000");
     private static final BigDecimal SAVING_DAILY_LIMIT_KHR = new BigDecimal("20500000"); // 5000 USD in KHR
 
-    public TransactionService() {
-        this.transactionRepository = new TransactionRepository();
-        this.accountRepository = new AccountRepository();
+    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository,
+                              DailySpendCache dailySpendCache, ReferenceData referenceData,
+                              SessionStore sessionStore) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.dailySpendCache = dailySpendCache;
+        this.referenceData = referenceData;
+        this.sessionStore = sessionStore;
     }
 
     /**
      * Create a deposit transaction
      */
-    public boolean deposit(Integer accountId, BigDecimal amount, String pin, String remark) {
+    public TransactionResult deposit(Integer accountId, BigDecimal amount, String pin, String remark) {
         // Validate account
         Optional<Account> accountOpt = accountRepository.findAccountById(accountId);
         if (accountOpt.isEmpty()) {
-            System.out.println("❌ Account not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ACCOUNT_NOT_FOUND, null, null, amount);
         }
 
         Account account = accountOpt.get();
 
         // Validate account status
         if (!account.isActive()) {
-            System.out.println("❌ Account is not active!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ACCOUNT_INACTIVE, account, null, amount);
         }
 
         // Validate amount
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            System.out.println("❌ Deposit amount must be greater than zero!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.INVALID_AMOUNT, account, null, amount);
         }
 
         // Get deposit transaction type
-        Optional<Integer> depositTypeId = transactionRepository.getTransactionTypeId("Deposit");
+        Optional<Integer> depositTypeId = referenceData.getTransactionTypeId("Deposit");
         if (depositTypeId.isEmpty()) {
-            System.out.println("❌ Deposit transaction type not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.TRANSACTION_TYPE_MISSING, account, null, amount);
         }
 
         try {
@@ -71,85 +75,73 @@ public class TransactionService {
                     remark != null ? remark : "Cash deposit"
             );
 
-            // Save transaction
-            boolean transactionCreated = transactionRepository.createTransaction(depositTransaction);
-            if (!transactionCreated) {
-                System.out.println("❌ Failed to create deposit transaction!");
-                return false;
+            // Credit, transaction row and ledger postings commit together
+            TransactionRepository.PostingResult result = transactionRepository.executeDeposit(depositTransaction);
+            if (!result.isSuccess()) {
+                if (result.getStatus() == TransactionRepository.PostingResult.Status.UNKNOWN) {
+                    sessionStore.invalidateAccounts(account.getCustomerId());
+                }
+                return TransactionResult.failure(errorCodeOf(result.getStatus(), TransactionResult.ErrorCode.ACCOUNT_INACTIVE),
+                        account, null, amount);
             }
 
-            // Update account balance
-            BigDecimal newBalance = account.getBalance().add(amount);
-            boolean balanceUpdated = accountRepository.updateBalanceById(accountId, newBalance);
-            if (!balanceUpdated) {
-                System.out.println("❌ Failed to update account balance!");
-                // TODO: Consider rollback transaction
-                return false;
-            }
+            sessionStore.invalidateAccounts(account.getCustomerId());
 
-            System.out.println("✅ Deposit successful!");
-            System.out.println("   Amount: " + formatCurrency(amount, account.getAccountCurrency()));
-            System.out.println("   New Balance: " + formatCurrency(newBalance, account.getAccountCurrency()));
-            return true;
+            return TransactionResult.success(depositTransaction, account, null, amount,
+                    amount, BigDecimal.ONE, result.getBalance(), null);
 
         } catch (Exception e) {
             System.err.println("Error processing deposit: " + e.getMessage());
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ERROR, account, null, amount);
         }
     }
 
     /**
      * Create a withdrawal transaction
      */
-    public boolean withdraw(Integer accountId, BigDecimal amount, String pin, String remark) {
+    public TransactionResult withdraw(Integer accountId, BigDecimal amount, String pin, String remark) {
         // Validate account
         Optional<Account> accountOpt = accountRepository.findAccountById(accountId);
         if (accountOpt.isEmpty()) {
-            System.out.println("❌ Account not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ACCOUNT_NOT_FOUND, null, null, amount);
         }
 
         Account account = accountOpt.get();
 
         // Validate account status
         if (!account.isActive()) {
-            System.out.println("❌ Account is not active!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ACCOUNT_INACTIVE, account, null, amount);
         }
 
         // Check if Fixed account is matured
         if (account.getMaturityDate() != null && !account.isMatured()) {
-            System.out.println("❌ Fixed account withdrawals are not allowed until maturity date: " +
-                    account.getMaturityDate());
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.NOT_MATURED, account, null, amount);
         }
 
         // Validate amount
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            System.out.println("❌ Withdrawal amount must be greater than zero!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.INVALID_AMOUNT, account, null, amount);
         }
 
         // Check sufficient balance
         if (account.getBalance().compareTo(amount) < 0) {
-            System.out.println("❌ Insufficient balance!");
-            System.out.println("   Available: " + formatCurrency(account.getBalance(), account.getAccountCurrency()));
-            System.out.println("   Requested: " + formatCurrency(amount, account.getAccountCurrency()));
-            return false;
-        }
-
-        // Check daily limits for Saving accounts
-        if ("Saving".equalsIgnoreCase(account.getAccountTypeName())) {
-            if (!checkDailyLimit(accountId, amount, account.getAccountCurrency())) {
-                return false;
-            }
+            return TransactionResult.failure(TransactionResult.ErrorCode.INSUFFICIENT_FUNDS, account, null, amount);
         }
 
         // Get withdraw transaction type
-        Optional<Integer> withdrawTypeId = transactionRepository.getTransactionTypeId("Withdraw");
+        Optional<Integer> withdrawTypeId = referenceData.getTransactionTypeId("Withdraw");
         if (withdrawTypeId.isEmpty()) {
-            System.out.println("❌ Withdraw transaction type not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.TRANSACTION_TYPE_MISSING, account, null, amount);
+        }
+
+        // Reserve against the daily limit for Saving accounts
+        DailySpendCache.Reservation reservation = null;
+        if ("Saving".equalsIgnoreCase(account.getAccountTypeName())) {
+            reservation = dailySpendCache.tryReserve(accountId, amount, getDailyLimit(account.getAccountCurrency()));
+            TransactionResult refused = refuseOverLimit(reservation, account, null, amount);
+            if (refused != null) {
+                return refused;
+            }
         }
 
         try {
@@ -163,42 +155,39 @@ public class TransactionService {
                     remark != null ? remark : "Cash withdrawal"
             );
 
-            // Save transaction
-            boolean transactionCreated = transactionRepository.createTransaction(withdrawTransaction);
-            if (!transactionCreated) {
-                System.out.println("❌ Failed to create withdrawal transaction!");
-                return false;
+            // Debit only if the current balance still covers the amount;
+            // transaction row and ledger postings commit with it
+            TransactionRepository.PostingResult result = transactionRepository.executeWithdrawal(withdrawTransaction);
+            if (!result.isSuccess()) {
+                if (result.getStatus() == TransactionRepository.PostingResult.Status.UNKNOWN) {
+                    // It may have gone through, so it keeps its reservation
+                    sessionStore.invalidateAccounts(account.getCustomerId());
+                } else if (reservation != null) {
+                    reservation.release();
+                }
+                return TransactionResult.failure(errorCodeOf(result.getStatus(), TransactionResult.ErrorCode.ACCOUNT_INACTIVE),
+                        account, null, amount);
             }
 
-            // Update account balance
-            BigDecimal newBalance = account.getBalance().subtract(amount);
-            boolean balanceUpdated = accountRepository.updateBalanceById(accountId, newBalance);
-            if (!balanceUpdated) {
-                System.out.println("❌ Failed to update account balance!");
-                // TODO: Consider rollback transaction
-                return false;
-            }
+            sessionStore.invalidateAccounts(account.getCustomerId());
 
-            System.out.println("✅ Withdrawal successful!");
-            System.out.println("   Amount: " + formatCurrency(amount, account.getAccountCurrency()));
-            System.out.println("   New Balance: " + formatCurrency(newBalance, account.getAccountCurrency()));
-            return true;
+            return TransactionResult.success(withdrawTransaction, account, null, amount,
+                    amount, BigDecimal.ONE, result.getBalance(), null);
 
         } catch (Exception e) {
             System.err.println("Error processing withdrawal: " + e.getMessage());
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ERROR, account, null, amount);
         }
     }
 
     /**
      * Transfer money between accounts (same customer or different customers)
      */
-    public boolean transfer(Integer fromAccountId, Integer toAccountId, BigDecimal amount, String pin, String remark) {
+    public TransactionResult transfer(Integer fromAccountId, Integer toAccountId, BigDecimal amount, String pin, String remark) {
         // Validate sender account
         Optional<Account> fromAccountOpt = accountRepository.findAccountById(fromAccountId);
         if (fromAccountOpt.isEmpty()) {
-            System.out.println("❌ Sender account not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ACCOUNT_NOT_FOUND, null, null, amount);
         }
 
         Account fromAccount = fromAccountOpt.get();
@@ -206,64 +195,49 @@ public class TransactionService {
         // Validate receiver account
         Optional<Account> toAccountOpt = accountRepository.findAccountById(toAccountId);
         if (toAccountOpt.isEmpty()) {
-            System.out.println("❌ Receiver account not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.RECEIVER_NOT_FOUND, fromAccount, null, amount);
         }
 
         Account toAccount = toAccountOpt.get();
 
         // Validate accounts are different
         if (fromAccountId.equals(toAccountId)) {
-            System.out.println("❌ Cannot transfer to the same account!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.SAME_ACCOUNT, fromAccount, toAccount, amount);
         }
 
         // Validate sender account status
         if (!fromAccount.isActive()) {
-            System.out.println("❌ Sender account is not active!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ACCOUNT_INACTIVE, fromAccount, toAccount, amount);
         }
 
         // Validate receiver account status
         if (!toAccount.isActive()) {
-            System.out.println("❌ Receiver account is not active!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.RECEIVER_INACTIVE, fromAccount, toAccount, amount);
         }
 
         // Check if Fixed account is matured (for sender)
         if (fromAccount.getMaturityDate() != null && !fromAccount.isMatured()) {
-            System.out.println("❌ Fixed account transfers are not allowed until maturity date: " +
-                    fromAccount.getMaturityDate());
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.NOT_MATURED, fromAccount, toAccount, amount);
         }
 
         // Validate amount
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            System.out.println("❌ Transfer amount must be greater than zero!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.INVALID_AMOUNT, fromAccount, toAccount, amount);
         }
 
         // Check sufficient balance
         if (fromAccount.getBalance().compareTo(amount) < 0) {
-            System.out.println("❌ Insufficient balance!");
-            System.out.println("   Available: " + formatCurrency(fromAccount.getBalance(), fromAccount.getAccountCurrency()));
-            System.out.println("   Requested: " + formatCurrency(amount, fromAccount.getAccountCurrency()));
-            return false;
-        }
-
-        // Check daily limits for Saving accounts
-        if ("Saving".equalsIgnoreCase(fromAccount.getAccountTypeName())) {
-            if (!checkDailyLimit(fromAccountId, amount, fromAccount.getAccountCurrency())) {
-                return false;
-            }
+            return TransactionResult.failure(TransactionResult.ErrorCode.INSUFFICIENT_FUNDS, fromAccount, toAccount, amount);
         }
 
         // Handle currency conversion if needed
         BigDecimal convertedAmount = amount;
+        BigDecimal exchangeRate = BigDecimal.ONE;
         String transferRemark = remark != null ? remark : "Account transfer";
 
         if (!fromAccount.getAccountCurrency().equals(toAccount.getAccountCurrency())) {
-            convertedAmount = convertCurrency(amount, fromAccount.getAccountCurrency(), toAccount.getAccountCurrency());
+            exchangeRate = exchangeRateOf(fromAccount.getAccountCurrency(), toAccount.getAccountCurrency());
+            convertedAmount = amount.multiply(exchangeRate);
             transferRemark += String.format(" (Converted from %s %s to %s %s at rate %s)",
                     formatCurrency(amount, fromAccount.getAccountCurrency()),
                     fromAccount.getAccountCurrency(),
@@ -273,10 +247,19 @@ public class TransactionService {
         }
 
         // Get transfer transaction type
-        Optional<Integer> transferTypeId = transactionRepository.getTransactionTypeId("Transfer");
+        Optional<Integer> transferTypeId = referenceData.getTransactionTypeId("Transfer");
         if (transferTypeId.isEmpty()) {
-            System.out.println("❌ Transfer transaction type not found!");
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.TRANSACTION_TYPE_MISSING, fromAccount, toAccount, amount);
+        }
+
+        // Reserve against the daily limit for Saving accounts
+        DailySpendCache.Reservation reservation = null;
+        if ("Saving".equalsIgnoreCase(fromAccount.getAccountTypeName())) {
+            reservation = dailySpendCache.tryReserve(fromAccountId, amount, getDailyLimit(fromAccount.getAccountCurrency()));
+            TransactionResult refused = refuseOverLimit(reservation, fromAccount, toAccount, amount);
+            if (refused != null) {
+                return refused;
+            }
         }
 
         try {
@@ -290,93 +273,71 @@ public class TransactionService {
                     transferRemark          // remark with conversion info
             );
 
-            // Save transaction
-            boolean transactionCreated = transactionRepository.createTransaction(transferTransaction);
-            if (!transactionCreated) {
-                System.out.println("❌ Failed to create transfer transaction!");
-                return false;
-            }
-
-            // Update sender balance
-            BigDecimal newFromBalance = fromAccount.getBalance().subtract(amount);
-            boolean fromBalanceUpdated = accountRepository.updateBalanceById(fromAccountId, newFromBalance);
-            if (!fromBalanceUpdated) {
-                System.out.println("❌ Failed to update sender account balance!");
-                return false;
+            // Debit, credit and record the transfer in one database transaction
+            TransactionRepository.PostingResult result =
+                    transactionRepository.executeTransfer(transferTransaction, convertedAmount, exchangeRate);
+            if (!result.isSuccess()) {
+                if (result.getStatus() == TransactionRepository.PostingResult.Status.UNKNOWN) {
+                    // It may have gone through, so it keeps its reservation
+                    sessionStore.invalidateAccounts(fromAccount.getCustomerId());
+                    sessionStore.invalidateAccounts(toAccount.getCustomerId());
+                } else if (reservation != null) {
+                    reservation.release();
+                }
+                return TransactionResult.failure(errorCodeOf(result.getStatus(), TransactionResult.ErrorCode.RECEIVER_INACTIVE),
+                        fromAccount, toAccount, amount);
             }
 
-            // Update receiver balance
-            BigDecimal newToBalance = toAccount.getBalance().add(convertedAmount);
-            boolean toBalanceUpdated = accountRepository.updateBalanceById(toAccountId, newToBalance);
-            if (!toBalanceUpdated) {
-                System.out.println("❌ Failed to update receiver account balance!");
-                // TODO: Consider rollback sender balance update
-                return false;
+            sessionStore.invalidateAccounts(fromAccount.getCustomerId());
+            if (!fromAccount.getCustomerId().equals(toAccount.getCustomerId())) {
+                sessionStore.invalidateAccounts(toAccount.getCustomerId());
             }
 
-            System.out.println("✅ Transfer successful!");
-            System.out.println("   From: " + fromAccount.getAccountName() + " - " + fromAccount.getFormattedAccountNo());
-            System.out.println("   To: " + toAccount.getAccountName() + " - " + toAccount.getFormattedAccountNo());
-            System.out.println("   Amount Sent: " + formatCurrency(amount, fromAccount.getAccountCurrency()));
-
-            if (!fromAccount.getAccountCurrency().equals(toAccount.getAccountCurrency())) {
-                System.out.println("   Amount Received: " + formatCurrency(convertedAmount, toAccount.getAccountCurrency()));
-                System.out.println("   Exchange Rate: " + getExchangeRate(fromAccount.getAccountCurrency(), toAccount.getAccountCurrency()));
-            }
-
-            System.out.println("   New Balance (From): " + formatCurrency(newFromBalance, fromAccount.getAccountCurrency()));
-            System.out.println("   New Balance (To): " + formatCurrency(newToBalance, toAccount.getAccountCurrency()));
-            return true;
+            return TransactionResult.success(transferTransaction, fromAccount, toAccount, amount,
+                    convertedAmount, exchangeRate, result.getBalance(), result.getReceiverBalance());
 
         } catch (Exception e) {
             System.err.println("Error processing transfer: " + e.getMessage());
-            return false;
+            return TransactionResult.failure(TransactionResult.ErrorCode.ERROR, fromAccount, toAccount, amount);
         }
     }
 
     /**
-     * Check daily transaction limits for Saving accounts
+     * Map a refused or failed posting to the code reported for it
+     * @param unavailable code for an account that was no longer active when updated
      */
-    private boolean checkDailyLimit(Integer accountId, BigDecimal amount, String currency) {
-        // Get today's transactions for this account
-        List<Transaction> todayTransactions = getTodayTransactions(accountId);
-
-        // Calculate total amount transacted today (withdrawals and transfers out)
-        BigDecimal totalToday = todayTransactions.stream()
-                .filter(t -> t.getSenderId().equals(accountId)) // Only outgoing transactions
-                .filter(t -> "Success".equalsIgnoreCase(t.getStatus()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Add current transaction amount
-        BigDecimal totalAfterTransaction = totalToday.add(amount);
-
-        // Get appropriate limit
-        BigDecimal dailyLimit = "USD".equalsIgnoreCase(currency) ? SAVING_DAILY_LIMIT_USD : SAVING_DAILY_LIMIT_KHR;
-
-        if (totalAfterTransaction.compareTo(dailyLimit) > 0) {
-            System.out.println("❌ Daily transaction limit exceeded!");
-            System.out.println("   Daily Limit: " + formatCurrency(dailyLimit, currency));
-            System.out.println("   Already Used Today: " + formatCurrency(totalToday, currency));
-            System.out.println("   Requested: " + formatCurrency(amount, currency));
-            System.out.println("   Remaining: " + formatCurrency(dailyLimit.subtract(totalToday), currency));
-            return false;
-        }
+    private static TransactionResult.ErrorCode errorCodeOf(TransactionRepository.PostingResult.Status status,
+                                                           TransactionResult.ErrorCode unavailable) {
+        return switch (status) {
+            case INSUFFICIENT_FUNDS -> TransactionResult.ErrorCode.INSUFFICIENT_FUNDS;
+            case ACCOUNT_UNAVAILABLE -> unavailable;
+            case UNKNOWN -> TransactionResult.ErrorCode.OUTCOME_UNKNOWN;
+            default -> TransactionResult.ErrorCode.ERROR;
+        };
+    }
 
-        return true;
+    /**
+     * Get today's total of successful outgoing transactions for an account
+     * @return empty if it could not be determined
+     */
+    private Optional<BigDecimal> getTodayOutgoingTotal(Integer accountId) {
+        return dailySpendCache.getSpentToday(accountId);
     }
 
     /**
-     * Get today's transactions for an account
+     * Turn a daily limit reservation that wasn't granted into the refusal to return
+     * @return null if the amount was reserved
      */
-    private List<Transaction> getTodayTransactions(Integer accountId) {
-        List<Transaction> allTransactions = transactionRepository.findTransactionsByAccountId(accountId);
-        LocalDateTime startOfDay = LocalDateTime.now().toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
-
-        return allTransactions.stream()
-                .filter(t -> t.getCreatedAt().isAfter(startOfDay) && t.getCreatedAt().isBefore(endOfDay))
-                .toList();
+    private TransactionResult refuseOverLimit(DailySpendCache.Reservation reservation, Account account,
+                                              Account receiver, BigDecimal amount) {
+        return switch (reservation.getStatus()) {
+            case RESERVED -> null;
+            // Without today's total the limit can't be enforced, so refuse
+            case UNAVAILABLE -> TransactionResult.failure(TransactionResult.ErrorCode.DAILY_LIMIT_UNAVAILABLE,
+                    account, receiver, amount);
+            case LIMIT_EXCEEDED -> TransactionResult.dailyLimitExceeded(account, receiver, amount,
+                    getDailyLimit(account.getAccountCurrency()), reservation.getSpentToday());
+        };
     }
 
     /**
@@ -386,11 +347,21 @@ public class TransactionService {
         if (fromCurrency.equals(toCurrency)) {
             return amount; // No conversion needed
         }
+        return amount.multiply(exchangeRateOf(fromCurrency, toCurrency));
+    }
+
+    /**
+     * Get the multiplier that converts an amount from one currency to another
+     */
+    private BigDecimal exchangeRateOf(String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return BigDecimal.ONE;
+        }
 
         if ("USD".equalsIgnoreCase(fromCurrency) && "KHR".equalsIgnoreCase(toCurrency)) {
-            return amount.multiply(USD_TO_KHR_RATE);
+            return USD_TO_KHR_RATE;
         } else if ("KHR".equalsIgnoreCase(fromCurrency) && "USD".equalsIgnoreCase(toCurrency)) {
-            return amount.multiply(KHR_TO_USD_RATE);
+            return KHR_TO_USD_RATE;
         }
 
         throw new IllegalArgumentException("Unsupported currency conversion: " + fromCurrency + " to " + toCurrency);
@@ -422,6 +393,35 @@ public class TransactionService {
         return transactionRepository.findTransactionsByAccountId(accountId);
     }
 
+    /**
+     * Get one page of a customer's transaction history, newest first
+     * @param after cursor from the previous page, or null for the first page
+     */
+    public TransactionRepository.TransactionPage getCustomerTransactionPage(Integer customerId,
+                                                                            TransactionRepository.PageCursor after,
+                                                                            int pageSize) {
+        return transactionRepository.findTransactionsByCustomerIdPage(customerId, after, pageSize);
+    }
+
+    /**
+     * Get one page of an account's transaction history, newest first
+     * @param after cursor from the previous page, or null for the first page
+     */
+    public TransactionRepository.TransactionPage getAccountTransactionPage(Integer accountId,
+                                                                           TransactionRepository.PageCursor after,
+                                                                           int pageSize) {
+        return transactionRepository.findTransactionsByAccountIdPage(accountId, after, pageSize);
+    }
+
+    /**
+     * Feed a customer's full transaction history to a consumer without loading it all at once
+     * (statements, exports)
+     * @return number of transactions delivered
+     */
+    public int streamCustomerTransactions(Integer customerId, Consumer<Transaction> consumer) {
+        return transactionRepository.streamTransactionsByCustomerId(customerId, consumer);
+    }
+
     /**
      * Find transaction by ID
      */
@@ -461,15 +461,96 @@ public class TransactionService {
      * Get remaining daily limit for an account
      */
     public BigDecimal getRemainingDailyLimit(Integer accountId, String currency) {
-        List<Transaction> todayTransactions = getTodayTransactions(accountId);
-
-        BigDecimal totalToday = todayTransactions.stream()
-                .filter(t -> t.getSenderId().equals(accountId))
-                .filter(t -> "Success".equalsIgnoreCase(t.getStatus()))
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Show nothing left rather than guess when today's total can't be read
+        Optional<BigDecimal> spentToday = getTodayOutgoingTotal(accountId);
+        if (spentToday.isEmpty()) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal totalToday = spentToday.get();
 
         BigDecimal dailyLimit = getDailyLimit(currency);
         return dailyLimit.subtract(totalToday).max(BigDecimal.ZERO);
     }
-}
\ No newline at end of file
+
+    /**
+     * Outcome of a deposit, withdrawal or transfer.
+     * Carries everything needed to report it, so the service never prints
+     * and can be driven by views, batch jobs or remote sessions alike.
+     */
+    public static class TransactionResult {
+        public enum ErrorCode {
+            ACCOUNT_NOT_FOUND, RECEIVER_NOT_FOUND, SAME_ACCOUNT, ACCOUNT_INACTIVE, RECEIVER_INACTIVE,
+            NOT_MATURED, INVALID_AMOUNT, INSUFFICIENT_FUNDS, DAILY_LIMIT_EXCEEDED, DAILY_LIMIT_UNAVAILABLE,
+            TRANSACTION_TYPE_MISSING, ERROR,
+            // The posting may or may not have been applied; check before retrying
+            OUTCOME_UNKNOWN
+        }
+
+        private final ErrorCode errorCode;          // null on success
+        private final Transaction transaction;      // Recorded transaction - null on failure
+        private final Account account;              // Account debited/credited (sender for transfers), as loaded
+        private final Account receiverAccount;      // Transfers only
+        private final BigDecimal amount;            // Requested amount, in the account's currency
+        private final BigDecimal convertedAmount;   // Amount credited, in the receiver's currency
+        private final BigDecimal exchangeRate;
+        private final BigDecimal newBalance;
+        private final BigDecimal newReceiverBalance;
+        private final BigDecimal dailyLimit;        // Set when the daily limit was exceeded
+        private final BigDecimal usedToday;
+
+        private TransactionResult(ErrorCode errorCode, Transaction transaction, Account account, Account receiverAccount,
+                                  BigDecimal amount, BigDecimal convertedAmount, BigDecimal exchangeRate,
+                                  BigDecimal newBalance, BigDecimal newReceiverBalance,
+                                  BigDecimal dailyLimit, BigDecimal usedToday) {
+            this.errorCode = errorCode;
+            this.transaction = transaction;
+            this.account = account;
+            this.receiverAccount = receiverAccount;
+            this.amount = amount;
+            this.convertedAmount = convertedAmount;
+            this.exchangeRate = exchangeRate;
+            this.newBalance = newBalance;
+            this.newReceiverBalance = newReceiverBalance;
+            this.dailyLimit = dailyLimit;
+            this.usedToday = usedToday;
+        }
+
+        public static TransactionResult success(Transaction transaction, Account account, Account receiverAccount,
+                                                BigDecimal amount, BigDecimal convertedAmount, BigDecimal exchangeRate,
+                                                BigDecimal newBalance, BigDecimal newReceiverBalance) {
+            return new TransactionResult(null, transaction, account, receiverAccount, amount, convertedAmount,
+                    exchangeRate, newBalance, newReceiverBalance, null, null);
+        }
+
+        public static TransactionResult failure(ErrorCode errorCode, Account account, Account receiverAccount,
+                                                BigDecimal amount) {
+            return new TransactionResult(errorCode, null, account, receiverAccount, amount,
+                    null, null, null, null, null, null);
+        }
+
+        public static TransactionResult dailyLimitExceeded(Account account, Account receiverAccount, BigDecimal amount,
+                                                           BigDecimal dailyLimit, BigDecimal usedToday) {
+            return new TransactionResult(ErrorCode.DAILY_LIMIT_EXCEEDED, null, account, receiverAccount, amount,
+                    null, null, null, null, dailyLimit, usedToday);
+        }
+
+        // Getters
+        public boolean isSuccess() { return errorCode == null; }
+        public ErrorCode getErrorCode() { return errorCode; }
+        public Transaction getTransaction() { return transaction; }
+        public Account getAccount() { return account; }
+        public Account getReceiverAccount() { return receiverAccount; }
+        public BigDecimal getAmount() { return amount; }
+        public BigDecimal getConvertedAmount() { return convertedAmount; }
+        public BigDecimal getExchangeRate() { return exchangeRate; }
+        public BigDecimal getNewBalance() { return newBalance; }
+        public BigDecimal getNewReceiverBalance() { return newReceiverBalance; }
+        public BigDecimal getDailyLimit() { return dailyLimit; }
+        public BigDecimal getUsedToday() { return usedToday; }
+
+        public boolean isCurrencyConverted() {
+            return receiverAccount != null
+                    && !account.getAccountCurrency().equals(receiverAccount.getAccountCurrency());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+// session/BankingSession.java
+package session;
+
+import controller.AuthController;
+import controller.CustomerController;
+import model.entity.User;
+
+import java.util.Scanner;
+
+/**
+ * One teller/customer conversation: login, role routing and logout.
+ * Controllers hold per-user state, so every session gets its own; the
+ * services and repositories behind them are shared through AppContext.
+ */
+public class BankingSession implements Runnable {
+    private final AuthController authController;
+    private CustomerController customerController; // Created on first customer login
+
+    public BankingSession() {
+        this("console");
+    }
+
+    /**
+     * @param clientId where the session comes from (remote address), used to throttle logins
+     */
+    public BankingSession(String clientId) {
+        this.authController = new AuthController(clientId);
+    }
+
+    /**
+     * Get the customer controller, creating it on first use
+     */
+    private CustomerController getCustomerController() {
+        if (customerController == null) {
+            customerController = new CustomerController();
+        }
+        return customerController;
+    }
+
+    /**
+     * Session main loop; returns when the client disconnects
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                try {
+                    // Handle authentication
+                    User authenticatedUser = authController.handleAuthentication();
+
+                    if (authenticatedUser != null) {
+                        // Route user based on role
+                        if (authenticatedUser.getRole() == User.Role.ADMIN) {
+                            handleAdminFlow(authenticatedUser);
+                        } else if (authenticatedUser.getRole() == User.Role.CUSTOMER) {
+                            handleCustomerFlow(authenticatedUser);
+                        }
+                    }
+
+                } catch (Exception e) {
+                    System.out.println("❌ An unexpected error occurred: " + e.getMessage());
+                    e.printStackTrace();
+
+                    // Ask user if they want to continue
+                    System.out.println("\nPress Enter to continue or Ctrl+C to exit...");
+                    try {
+                        System.in.read();
+                    } catch (Exception ignored) {}
+                }
+            }
+        } catch (SessionConsole.SessionClosedError e) {
+            // Client went away
+        } finally {
+            endSession();
+        }
+    }
+
+    /**
+     * Log out whoever is still signed in on this session
+     */
+    public void endSession() {
+        if (customerController != null) {
+            customerController.clearCurrentCustomer();
+        }
+        if (authController.isLoggedIn()) {
+            authController.logout();
+        }
+    }
+
+    /**
+     * Handle admin flow (placeholder for now)
+     */
+    private void handleAdminFlow(User admin) {
+        System.out.println("\n🔧 ADMIN PANEL");
+        System.out.println("Admin features coming in Phase 6!");
+        System.out.println("For now, you can:");
+        System.out.println("1. Test unlock account feature");
+
+        // Simple admin menu for testing
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("\nOptions:");
+        System.out.println("1. Unlock Account");
+        System.out.println("0. Logout");
+        System.out.print("Choose option: ");
+
+        try {
+            int choice = Integer.parseInt(scanner.nextLine().trim());
+            if (choice == 1) {
+                authController.handleUnlockAccount();
+            } else if (choice == 0) {
+                authController.logout();
+            }
+        } catch (Exception e) {
+            System.out.println("Invalid input");
+        }
+    }
+
+    /**
+     * Handle customer flow (now fully implemented!)
+     */
+    private void handleCustomerFlow(User customer) {
+        System.out.println("\n🏦 CUSTOMER PORTAL");
+
+        // Pass control to CustomerController
+        boolean continueSession = getCustomerController().handleCustomerFlow(customer, authController);
+
+        if (!continueSession) {
+            // Customer chose to logout
+            authController.logout();
+        }
+
+        // Clear customer data when session ends
+        getCustomerController().clearCurrentCustomer();
+    }
+}
@@ -0,0 +1,181 @@
+// session/SessionConsole.java
+package session;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Per-session standard input/output.
+ * Views and services talk to System.in/System.out directly, so install()
+ * replaces both with streams that forward to whichever session is bound to
+ * the calling thread, or to the real console when none is. Each session
+ * thread binds its own streams with run(), and the existing code works
+ * unchanged whether it serves the local terminal or a remote client.
+ * Session output is buffered per session and sent when the session next
+ * reads input or ends, so one slow client never holds System.out's lock
+ * while blocked on its socket.
+ */
+public final class SessionConsole {
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+
+    private static InputStream consoleIn;
+    private static PrintStream consoleOut;
+
+    private SessionConsole() {
+    }
+
+    /**
+     * Route System.in/System.out through the session binding (idempotent).
+     * Must run before any view creates its Scanner.
+     */
+    public static synchronized void install() {
+        if (consoleOut != null) {
+            return;
+        }
+        consoleIn = System.in;
+        consoleOut = System.out;
+        System.setIn(new RoutingInputStream());
+        System.setOut(new PrintStream(new RoutingOutputStream(), true, consoleOut.charset()));
+    }
+
+    /**
+     * Run a session on the current thread with its own input and output
+     */
+    public static void run(InputStream in, OutputStream out, Runnable session) {
+        Binding previous = CURRENT.get();
+        Binding binding = new Binding(in, out);
+        CURRENT.set(binding);
+        try {
+            session.run();
+        } finally {
+            binding.drain();
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Thrown out of a read once the session's client has gone away.
+     * An Error so the many catch (Exception) blocks around input cannot
+     * swallow it and re-prompt a client that is no longer there.
+     */
+    public static final class SessionClosedError extends Error {
+        private static final long serialVersionUID = 1L;
+
+        public SessionClosedError() {
+            super("Session input closed", null, false, false);
+        }
+    }
+
+    private static final class Binding {
+        private final InputStream in;
+        private final OutputStream out;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        private Binding(InputStream in, OutputStream out) {
+            this.in = new BufferedInputStream(in);
+            this.out = out;
+        }
+
+        /**
+         * Send buffered output to the client
+         */
+        private void drain() {
+            try {
+                pending.writeTo(out);
+                out.flush();
+            } catch (IOException e) {
+                // Client gone; the next read ends the session
+            }
+            pending.reset();
+        }
+
+        /**
+         * Hand out at most one line per call, so the separate Scanner of each
+         * view never buffers input meant for the next one
+         */
+        private int readLine(byte[] buffer, int offset, int length) {
+            int count = 0;
+            while (count < length) {
+                int next;
+                try {
+                    next = in.read();
+                } catch (IOException e) {
+                    // Scanner would treat this as end of input and views would re-prompt forever
+                    throw new SessionClosedError();
+                }
+                if (next < 0) {
+                    if (count == 0) {
+                        throw new SessionClosedError();
+                    }
+                    break;
+                }
+                buffer[offset + count++] = (byte) next;
+                if (next == '\n') {
+                    break;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static final class RoutingInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            Binding binding = CURRENT.get();
+            if (binding == null) {
+                return consoleIn.read(buffer, offset, length);
+            }
+            if (length == 0) {
+                return 0;
+            }
+            // Prompts are printed without a newline; make sure the client sees them first
+            binding.drain();
+            return binding.readLine(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            Binding binding = CURRENT.get();
+            return binding == null ? consoleIn.available() : 0;
+        }
+    }
+
+    private static final class RoutingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            target().write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Session output is sent by drain(), outside System.out's lock
+            if (CURRENT.get() == null) {
+                consoleOut.flush();
+            }
+        }
+
+        private OutputStream target() {
+            Binding binding = CURRENT.get();
+            return binding == null ? consoleOut : binding.pending;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+// session/SessionExecutor.java
+package session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs banking sessions concurrently, one virtual thread per session.
+ * Sessions spend nearly all their time waiting on the client or on JDBC,
+ * so parking a virtual thread costs next to nothing and one process can
+ * hold thousands of them; database concurrency is still bounded by the
+ * connection pool.
+ */
+public class SessionExecutor {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("session-", 0).factory());
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong completedSessions = new AtomicLong();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+
+    public SessionExecutor() {
+        SessionConsole.install();
+    }
+
+    /**
+     * Start a session reading from in and writing to out
+     * @return future completed when the session ends
+     */
+    public Future<?> submit(InputStream in, OutputStream out) {
+        return submit(in, out, "session-" + sessionIds.incrementAndGet());
+    }
+
+    /**
+     * Start a session for a known client
+     * @param clientId remote address or other stable id, used to throttle logins
+     */
+    public Future<?> submit(InputStream in, OutputStream out, String clientId) {
+        return executor.submit(() -> runSession(in, out, clientId));
+    }
+
+    private void runSession(InputStream in, OutputStream out, String clientId) {
+        activeSessions.incrementAndGet();
+        try {
+            SessionConsole.run(in, out, new BankingSession(clientId));
+        } finally {
+            activeSessions.decrementAndGet();
+            completedSessions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Accept plain-text sessions (e.g. telnet/nc clients). Passwords cross the
+     * connection in the clear, so bind loopback unless the network is trusted.
+     */
+    public synchronized void listen(InetSocketAddress address) throws IOException {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Already listening on " + serverSocket.getLocalSocketAddress());
+        }
+        ServerSocket server = new ServerSocket();
+        server.bind(address);
+        serverSocket = server;
+        Thread.ofVirtual().name("session-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Where sessions are accepted, or null if not listening
+     */
+    public InetSocketAddress getAddress() {
+        ServerSocket server = serverSocket;
+        return server != null ? (InetSocketAddress) server.getLocalSocketAddress() : null;
+    }
+
+    private void acceptLoop() {
+        ServerSocket server = serverSocket;
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                executor.submit(() -> serve(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    System.err.println("Error accepting session: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            // Keyed by address, so reconnecting doesn't reset the login throttle
+            runSession(socket.getInputStream(), socket.getOutputStream(),
+                       socket.getInetAddress().getHostAddress());
+        } catch (IOException e) {
+            System.err.println("Session ended with error: " + e.getMessage());
+        }
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public long getCompletedSessions() {
+        return completedSessions.get();
+    }
+
+    /**
+     * Stop accepting new sessions and end the running ones.
+     * Interrupting a virtual thread blocked on its socket closes the socket,
+     * which ends the session and logs its user out.
+     */
+    public void shutdown() {
+        ServerSocket server = serverSocket;
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException ignored) {}
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
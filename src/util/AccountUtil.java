@@ -1,43 +1,60 @@
 // util/AccountUtil.java
 package util;
 
-import java.util.Random;
-import java.util.Set;
-
 public class AccountUtil {
-    private static final Random random = new Random();
+    // Valid account numbers are 9 digits without a leading zero: 100000000 - 999999999
+    private static final long ACCOUNT_NUMBER_MIN = 100_000_000L;
+    private static final long ACCOUNT_NUMBER_SPACE = 900_000_000L;
+
+    // Sequence values reserved per call to account_no_seq (its INCREMENT BY)
+    public static final int ACCOUNT_NUMBER_BLOCK_SIZE = 50;
+
+    // Feistel network over 30 bits (2^30 > 900,000,000), two 15-bit halves
+    private static final int HALF_BITS = 15;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int[] ROUND_KEYS = {0x3C6EF372, 0x7F4A7C15, 0x1B873593, 0x5BD1E995};
 
     /**
-     * Generate a unique 9-digit account number
-     * @param existingAccountNumbers Set of existing account numbers to avoid duplicates
+     * Map a sequence value to a 9-digit account number.
+     * The mapping is a bijection on the whole account number space, so distinct
+     * sequence values always give distinct numbers, while consecutive values
+     * do not produce guessable consecutive account numbers.
+     * @param sequenceValue Value from account_no_seq (0 to 899,999,999)
      * @return 9-digit account number as string
      */
-    public static String generateAccountNumber(Set<String> existingAccountNumbers) {
-        String accountNumber;
-        int attempts = 0;
-        int maxAttempts = 1000; // Prevent infinite loop
+    public static String accountNumberFromSequence(long sequenceValue) {
+        if (sequenceValue < 0 || sequenceValue >= ACCOUNT_NUMBER_SPACE) {
+            throw new IllegalArgumentException("Account number sequence exhausted: " + sequenceValue);
+        }
 
+        // Cycle-walk: re-apply the permutation until the result lands inside the space
+        long value = sequenceValue;
         do {
-            // Generate 9 random digits
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < 9; i++) {
-                // Ensure first digit is not 0
-                if (i == 0) {
-                    sb.append(random.nextInt(9) + 1); // 1-9
-                } else {
-                    sb.append(random.nextInt(10)); // 0-9
-                }
-            }
-            accountNumber = sb.toString();
-            attempts++;
-
-            if (attempts >= maxAttempts) {
-                throw new RuntimeException("Unable to generate unique account number after " + maxAttempts + " attempts");
-            }
-
-        } while (existingAccountNumbers.contains(accountNumber));
+            value = feistel(value);
+        } while (value >= ACCOUNT_NUMBER_SPACE);
 
-        return accountNumber;
+        return String.valueOf(ACCOUNT_NUMBER_MIN + value);
+    }
+
+    private static long feistel(long value) {
+        int left = (int) (value >>> HALF_BITS) & HALF_MASK;
+        int right = (int) value & HALF_MASK;
+
+        for (int key : ROUND_KEYS) {
+            int next = left ^ (roundFunction(right, key) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+
+        return ((long) left << HALF_BITS) | right;
+    }
+
+    private static int roundFunction(int half, int key) {
+        int h = half * 0x9E3779B1 ^ key;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
     }
 
     /**
@@ -7,8 +7,320 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 
+/**
+ * Versioned schema bootstrap.
+ * Tables, constraints, indexes, sequences and reference rows are described
+ * as numbered migrations. The applied version is kept in schema_version, so a
+ * database that is already current costs a single version check at startup;
+ * pending migrations are applied in order, each in its own transaction.
+ * Every statement is idempotent (IF NOT EXISTS / ON CONFLICT DO NOTHING), so
+ * databases created before versioning existed migrate cleanly.
+ */
 public class DatabaseInitUtil {
+    // Arbitrary key for pg_advisory_lock; serialises concurrent app starts
+    private static final long MIGRATION_LOCK_KEY = 7_310_442_001L;
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Base tables",
+                    """
+                    CREATE TABLE IF NOT EXISTS account_types (
+                        id SERIAL PRIMARY KEY,
+                        type VARCHAR(50) NOT NULL,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS customer_segments (
+                        id SERIAL PRIMARY KEY,
+                        segment VARCHAR(50) NOT NULL,
+                        description TEXT,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS transaction_types (
+                        id SERIAL PRIMARY KEY,
+                        type VARCHAR(50) NOT NULL,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS bill_categories (
+                        id SERIAL PRIMARY KEY,
+                        category_name VARCHAR(100) NOT NULL,
+                        description TEXT,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS customers (
+                        id SERIAL PRIMARY KEY,
+                        kyc_id INTEGER,
+                        full_name VARCHAR(100) NOT NULL,
+                        dob DATE,
+                        gender VARCHAR(10),
+                        address TEXT,
+                        city_or_province VARCHAR(100),
+                        country VARCHAR(100),
+                        zip_code VARCHAR(20),
+                        phone_number VARCHAR(20),
+                        email VARCHAR(100),
+                        employment_type VARCHAR(50),
+                        company_name VARCHAR(100),
+                        position VARCHAR(100),
+                        main_source_of_income VARCHAR(100),
+                        monthly_income_range VARCHAR(50),
+                        remark TEXT,
+                        pin VARCHAR(255),
+                        customer_segment_id INTEGER REFERENCES customer_segments (id),
+                        is_deleted BOOLEAN NOT NULL DEFAULT false
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS accounts (
+                        id SERIAL PRIMARY KEY,
+                        customer_id INTEGER NOT NULL REFERENCES customers (id),
+                        account_no VARCHAR(20) NOT NULL,
+                        account_name VARCHAR(100),
+                        account_currency VARCHAR(3) NOT NULL,
+                        balance NUMERIC(15, 2) NOT NULL DEFAULT 0,
+                        over_limit NUMERIC(15, 2) NOT NULL DEFAULT 0,
+                        is_freeze BOOLEAN NOT NULL DEFAULT false,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false,
+                        account_type_id INTEGER REFERENCES account_types (id),
+                        maturity_date DATE
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS transactions (
+                        id SERIAL PRIMARY KEY,
+                        sender_id INTEGER REFERENCES accounts (id),
+                        receiver_id INTEGER REFERENCES accounts (id),
+                        transaction_type_id INTEGER NOT NULL REFERENCES transaction_types (id),
+                        bill_category_id INTEGER REFERENCES bill_categories (id),
+                        amount NUMERIC(15, 2) NOT NULL,
+                        status VARCHAR(20) NOT NULL,
+                        remark TEXT,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false,
+                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS users (
+                        id SERIAL PRIMARY KEY,
+                        username VARCHAR(50) NOT NULL,
+                        password VARCHAR(255) NOT NULL,
+                        role VARCHAR(20) NOT NULL,
+                        customer_id INTEGER REFERENCES customers (id),
+                        is_locked BOOLEAN NOT NULL DEFAULT false,
+                        failed_attempts INTEGER NOT NULL DEFAULT 0,
+                        is_deleted BOOLEAN NOT NULL DEFAULT false
+                    )
+                    """
+            ),
+            // Existing duplicates need a person to decide which row keeps the
+            // value, so they stop the upgrade with a clear message.
+            new Migration(2, "Unique constraints",
+                    """
+                    DO $$
+                    DECLARE
+                        conflicts TEXT;
+                    BEGIN
+                        SELECT string_agg(duplicates || ' ' || kind, ', ') INTO conflicts FROM (
+                            SELECT 'account type(s)' AS kind, COUNT(*) AS duplicates FROM (
+                                SELECT 1 FROM account_types WHERE is_deleted = false
+                                GROUP BY LOWER(type) HAVING COUNT(*) > 1) d
+                            UNION ALL
+                            SELECT 'customer segment(s)', COUNT(*) FROM (
+                                SELECT 1 FROM customer_segments WHERE is_deleted = false
+                                GROUP BY LOWER(segment) HAVING COUNT(*) > 1) d
+                            UNION ALL
+                            SELECT 'transaction type(s)', COUNT(*) FROM (
+                                SELECT 1 FROM transaction_types WHERE is_deleted = false
+                                GROUP BY LOWER(type) HAVING COUNT(*) > 1) d
+                            UNION ALL
+                            SELECT 'bill category name(s)', COUNT(*) FROM (
+                                SELECT 1 FROM bill_categories WHERE is_deleted = false
+                                GROUP BY LOWER(category_name) HAVING COUNT(*) > 1) d
+                            UNION ALL
+                            SELECT 'username(s)', COUNT(*) FROM (
+                                SELECT 1 FROM users WHERE is_deleted = false
+                                GROUP BY username HAVING COUNT(*) > 1) d
+                            UNION ALL
+                            SELECT 'account number(s)', COUNT(*) FROM (
+                                SELECT 1 FROM accounts
+                                GROUP BY account_no HAVING COUNT(*) > 1) d
+                        ) found
+                        WHERE duplicates > 0;
+                        IF conflicts IS NOT NULL THEN
+                            RAISE EXCEPTION 'Duplicate values must be resolved before upgrading: %', conflicts;
+                        END IF;
+                    END
+                    $$
+                    """,
+                    // Lookup names are matched case-insensitively among live rows
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_account_types_type "
+                            + "ON account_types (LOWER(type)) WHERE is_deleted = false",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_customer_segments_segment "
+                            + "ON customer_segments (LOWER(segment)) WHERE is_deleted = false",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_transaction_types_type "
+                            + "ON transaction_types (LOWER(type)) WHERE is_deleted = false",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_bill_categories_category_name "
+                            + "ON bill_categories (LOWER(category_name)) WHERE is_deleted = false",
+                    // Login lookup: username = ? AND is_deleted = false
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_users_username "
+                            + "ON users (username) WHERE is_deleted = false",
+                    // Account numbers are never reused, deleted or not
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_accounts_account_no ON accounts (account_no)",
+                    // Superseded by the unique index above
+                    "DROP INDEX IF EXISTS idx_accounts_account_no"
+            ),
+            new Migration(3, "Lookup indexes",
+                    // Daily limit aggregation and the customer history sender branch
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_sender_created_at "
+                            + "ON transactions (sender_id, created_at)",
+                    // Customer/account history receiver branch, newest first
+                    "CREATE INDEX IF NOT EXISTS idx_transactions_receiver_created_at "
+                            + "ON transactions (receiver_id, created_at)",
+                    // Resolving a customer's accounts
+                    "CREATE INDEX IF NOT EXISTS idx_accounts_customer_id ON accounts (customer_id)",
+                    // Registration duplicate checks and contact lookups
+                    "CREATE INDEX IF NOT EXISTS idx_customers_phone_number "
+                            + "ON customers (phone_number) WHERE is_deleted = false",
+                    "CREATE INDEX IF NOT EXISTS idx_customers_email "
+                            + "ON customers (email) WHERE is_deleted = false"
+            ),
+            new Migration(4, "Account number sequence",
+                    // Each nextval reserves a whole block of account numbers for this JVM
+                    "CREATE SEQUENCE IF NOT EXISTS account_no_seq MINVALUE 0 START WITH 0 INCREMENT BY "
+                            + AccountUtil.ACCOUNT_NUMBER_BLOCK_SIZE
+            ),
+            new Migration(5, "Reference data",
+                    """
+                    INSERT INTO account_types (type, is_deleted)
+                    VALUES ('Saving', false), ('Checking', false), ('Fixed', false)
+                    ON CONFLICT (LOWER(type)) WHERE is_deleted = false DO NOTHING
+                    """,
+                    """
+                    INSERT INTO customer_segments (segment, description, is_deleted)
+                    VALUES ('Retail', 'Regular retail banking customers', false),
+                           ('VIP', 'VIP customers with premium services', false),
+                           ('Business', 'Business banking customers', false)
+                    ON CONFLICT (LOWER(segment)) WHERE is_deleted = false DO NOTHING
+                    """,
+                    """
+                    INSERT INTO transaction_types (type, is_deleted)
+                    VALUES ('Deposit', false), ('Withdraw', false), ('Transfer', false), ('Bill Payment', false)
+                    ON CONFLICT (LOWER(type)) WHERE is_deleted = false DO NOTHING
+                    """,
+                    """
+                    INSERT INTO bill_categories (category_name, description, is_deleted)
+                    VALUES ('Electricity', 'Electricity bill payments', false),
+                           ('Water', 'Water bill payments', false),
+                           ('Internet', 'Internet service bill payments', false),
+                           ('Phone', 'Phone service bill payments', false),
+                           ('Netflix', 'Netflix subscription payments', false),
+                           ('Disney+', 'Disney+ subscription payments', false),
+                           ('Spotify', 'Spotify subscription payments', false),
+                           ('Insurance', 'Insurance premium payments', false),
+                           ('Loan Payment', 'Loan repayment', false),
+                           ('Credit Card', 'Credit card bill payments', false)
+                    ON CONFLICT (LOWER(category_name)) WHERE is_deleted = false DO NOTHING
+                    """
+            ),
+            new Migration(6, "Double-entry ledger",
+                    """
+                    CREATE TABLE IF NOT EXISTS ledger_entries (
+                        id BIGSERIAL PRIMARY KEY,
+                        transaction_id INTEGER REFERENCES transactions (id),
+                        account_id INTEGER REFERENCES accounts (id),
+                        amount NUMERIC(20, 2) NOT NULL,
+                        exchange_rate NUMERIC(18, 8) NOT NULL DEFAULT 1,
+                        created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """,
+                    // Ledger balance: postings after the account's checkpoint
+                    "CREATE INDEX IF NOT EXISTS idx_ledger_entries_account_id ON ledger_entries (account_id, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_ledger_entries_transaction_id ON ledger_entries (transaction_id)",
+                    """
+                    CREATE OR REPLACE FUNCTION reject_ledger_change() RETURNS trigger AS $$
+                    BEGIN
+                        RAISE EXCEPTION 'ledger_entries is append-only';
+                    END
+                    $$ LANGUAGE plpgsql
+                    """,
+                    "DROP TRIGGER IF EXISTS ledger_entries_append_only ON ledger_entries",
+                    """
+                    CREATE TRIGGER ledger_entries_append_only
+                    BEFORE UPDATE OR DELETE ON ledger_entries
+                    FOR EACH ROW EXECUTE FUNCTION reject_ledger_change()
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS balance_checkpoints (
+                        account_id INTEGER PRIMARY KEY REFERENCES accounts (id),
+                        last_entry_id BIGINT NOT NULL,
+                        balance NUMERIC(20, 2) NOT NULL,
+                        checkpointed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """,
+                    // Balances that predate the ledger become opening checkpoints
+                    """
+                    INSERT INTO balance_checkpoints (account_id, last_entry_id, balance)
+                    SELECT id, 0, balance FROM accounts
+                    ON CONFLICT (account_id) DO NOTHING
+                    """
+            ),
+            // Credits to hot accounts are spread over slot rows and folded back periodically
+            new Migration(7, "Hot account balance slots",
+                    "ALTER TABLE accounts ADD COLUMN IF NOT EXISTS is_hot BOOLEAN NOT NULL DEFAULT false",
+                    """
+                    CREATE TABLE IF NOT EXISTS account_balance_slots (
+                        account_id INTEGER NOT NULL REFERENCES accounts (id),
+                        slot SMALLINT NOT NULL,
+                        balance NUMERIC(15, 2) NOT NULL DEFAULT 0,
+                        PRIMARY KEY (account_id, slot)
+                    )
+                    """
+            ),
+            // Phone numbers and emails are unique among live customers; the
+            // indexes replace the application-side existence checks.
+            // Existing duplicates need a person to decide which customer keeps
+            // the contact, so they stop the upgrade with a clear message.
+            new Migration(8, "Unique customer contacts",
+                    """
+                    DO $$
+                    DECLARE
+                        duplicates INTEGER;
+                    BEGIN
+                        SELECT COUNT(*) INTO duplicates FROM (
+                            SELECT phone_number FROM customers
+                            WHERE is_deleted = false AND phone_number IS NOT NULL
+                            GROUP BY phone_number HAVING COUNT(*) > 1
+                            UNION ALL
+                            SELECT email FROM customers
+                            WHERE is_deleted = false AND email IS NOT NULL
+                            GROUP BY email HAVING COUNT(*) > 1
+                        ) shared;
+                        IF duplicates > 0 THEN
+                            RAISE EXCEPTION '% phone number(s)/email(s) are shared by several live customers; '
+                                'resolve them before upgrading', duplicates;
+                        END IF;
+                    END
+                    $$
+                    """,
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_customers_phone_number "
+                            + "ON customers (phone_number) WHERE is_deleted = false",
+                    "CREATE UNIQUE INDEX IF NOT EXISTS uq_customers_email "
+                            + "ON customers (email) WHERE is_deleted = false",
+                    // Superseded by the unique indexes above
+                    "DROP INDEX IF EXISTS idx_customers_phone_number",
+                    "DROP INDEX IF EXISTS idx_customers_email"
+            )
+    );
+
     private final Database database;
 
     public DatabaseInitUtil() {
@@ -16,223 +328,115 @@ public class DatabaseInitUtil {
     }
 
     /**
-     * Initialize all required database data
+     * Bring the database schema and reference data up to the latest version
+     * @throws IllegalStateException if the schema could not be brought up to date;
+     *         services rely on its constraints, so the application must not start
      */
     public void initializeAll() {
-        System.out.println("🔧 Initializing database data...");
-
-        initializeAccountTypes();
-        initializeCustomerSegments();
-        initializeTransactionTypes();
-        initializeBillCategories();
-
-        System.out.println("✅ Database initialization completed successfully!");
-    }
-
-    /**
-     * Initialize account types if they don't exist
-     */
-    private void initializeAccountTypes() {
-        System.out.println("📊 Setting up account types...");
-
-        String[] accountTypes = {"Saving", "Checking", "Fixed"};
+        System.out.println("🔧 Initializing database schema...");
 
         try (Connection connection = database.getConnection()) {
-            for (String type : accountTypes) {
-                if (!accountTypeExists(connection, type)) {
-                    createAccountType(connection, type);
-                    System.out.println("✅ Created account type: " + type);
-                } else {
-                    System.out.println("ℹ️ Account type already exists: " + type);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Error initializing account types: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
+            int currentVersion = currentSchemaVersion(connection);
+            int latestVersion = MIGRATIONS.get(MIGRATIONS.size() - 1).version;
 
-    /**
-     * Initialize customer segments if they don't exist
-     */
-    private void initializeCustomerSegments() {
-        System.out.println("👥 Setting up customer segments...");
+            if (currentVersion >= latestVersion) {
+                System.out.println("ℹ️ Schema is up to date (version " + currentVersion + ")");
+                return;
+            }
 
-        String[][] segments = {
-                {"Retail", "Regular retail banking customers"},
-                {"VIP", "VIP customers with premium services"},
-                {"Business", "Business banking customers"}
-        };
+            applyPendingMigrations(connection);
+            System.out.println("✅ Database initialization completed successfully!");
 
-        try (Connection connection = database.getConnection()) {
-            for (String[] segment : segments) {
-                if (!customerSegmentExists(connection, segment[0])) {
-                    createCustomerSegment(connection, segment[0], segment[1]);
-                    System.out.println("✅ Created customer segment: " + segment[0]);
-                } else {
-                    System.out.println("ℹ️ Customer segment already exists: " + segment[0]);
-                }
-            }
         } catch (SQLException e) {
-            System.err.println("❌ Error initializing customer segments: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("❌ Error initializing database schema: " + e.getMessage());
+            throw new IllegalStateException("Database schema is not up to date", e);
         }
     }
 
     /**
-     * Initialize transaction types if they don't exist
+     * Apply every migration newer than the recorded version.
+     * The advisory lock keeps two starting instances from applying the same
+     * migration; the version is re-read once the lock is held.
      */
-    private void initializeTransactionTypes() {
-        System.out.println("💸 Setting up transaction types...");
-
-        String[] transactionTypes = {"Deposit", "Withdraw", "Transfer", "Bill Payment"};
-
-        try (Connection connection = database.getConnection()) {
-            for (String type : transactionTypes) {
-                if (!transactionTypeExists(connection, type)) {
-                    createTransactionType(connection, type);
-                    System.out.println("✅ Created transaction type: " + type);
-                } else {
-                    System.out.println("ℹ️ Transaction type already exists: " + type);
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("❌ Error initializing transaction types: " + e.getMessage());
-            e.printStackTrace();
+    private void applyPendingMigrations(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + MIGRATION_LOCK_KEY + ")");
         }
-    }
 
-    /**
-     * Initialize bill categories if they don't exist
-     */
-    private void initializeBillCategories() {
-        System.out.println("🧾 Setting up bill categories...");
-
-        String[][] categories = {
-                {"Electricity", "Electricity bill payments"},
-                {"Water", "Water bill payments"},
-                {"Internet", "Internet service bill payments"},
-                {"Phone", "Phone service bill payments"},
-                {"Netflix", "Netflix subscription payments"},
-                {"Disney+", "Disney+ subscription payments"},
-                {"Spotify", "Spotify subscription payments"},
-                {"Insurance", "Insurance premium payments"},
-                {"Loan Payment", "Loan repayment"},
-                {"Credit Card", "Credit card bill payments"}
-        };
+        try {
+            int currentVersion = currentSchemaVersion(connection);
+            connection.setAutoCommit(false);
 
-        try (Connection connection = database.getConnection()) {
-            for (String[] category : categories) {
-                if (!billCategoryExists(connection, category[0])) {
-                    createBillCategory(connection, category[0], category[1]);
-                    System.out.println("✅ Created bill category: " + category[0]);
-                } else {
-                    System.out.println("ℹ️ Bill category already exists: " + category[0]);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= currentVersion) {
+                    continue;
+                }
+                try {
+                    applyMigration(connection, migration);
+                    connection.commit();
+                    System.out.println("✅ Applied schema version " + migration.version + ": " + migration.description);
+                } catch (SQLException e) {
+                    connection.rollback();
+                    // Later migrations may depend on this one
+                    throw new SQLException("Schema version " + migration.version
+                            + " (" + migration.description + ") failed: " + e.getMessage(), e);
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("❌ Error initializing bill categories: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    // ========== HELPER METHODS ==========
-
-    /**
-     * Check if account type exists
-     */
-    private boolean accountTypeExists(Connection connection, String type) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM account_types WHERE LOWER(type) = LOWER(?) AND is_deleted = false";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, type);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                return resultSet.next() && resultSet.getInt(1) > 0;
+        } finally {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK_KEY + ")");
             }
         }
     }
 
     /**
-     * Create account type
+     * Send a migration's statements as one batch and record its version
      */
-    private void createAccountType(Connection connection, String type) throws SQLException {
-        String sql = "INSERT INTO account_types (type, is_deleted) VALUES (?, false)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, type);
-            statement.executeUpdate();
-        }
-    }
-
-    /**
-     * Check if customer segment exists
-     */
-    private boolean customerSegmentExists(Connection connection, String segment) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM customer_segments WHERE LOWER(segment) = LOWER(?) AND is_deleted = false";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, segment);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                return resultSet.next() && resultSet.getInt(1) > 0;
+    private void applyMigration(Connection connection, Migration migration) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.statements) {
+                statement.addBatch(sql);
             }
+            statement.executeBatch();
         }
-    }
 
-    /**
-     * Create customer segment
-     */
-    private void createCustomerSegment(Connection connection, String segment, String description) throws SQLException {
-        String sql = "INSERT INTO customer_segments (segment, description, is_deleted) VALUES (?, ?, false)";
+        String sql = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, segment);
-            statement.setString(2, description);
+            statement.setInt(1, migration.version);
+            statement.setString(2, migration.description);
             statement.executeUpdate();
         }
     }
 
     /**
-     * Check if transaction type exists
-     */
-    private boolean transactionTypeExists(Connection connection, String type) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM transaction_types WHERE LOWER(type) = LOWER(?) AND is_deleted = false";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, type);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                return resultSet.next() && resultSet.getInt(1) > 0;
-            }
-        }
-    }
-
-    /**
-     * Create transaction type
+     * Get the highest applied schema version, creating the version table if needed
      */
-    private void createTransactionType(Connection connection, String type) throws SQLException {
-        String sql = "INSERT INTO transaction_types (type, is_deleted) VALUES (?, false)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, type);
-            statement.executeUpdate();
-        }
-    }
+    private int currentSchemaVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description VARCHAR(100) NOT NULL,
+                        applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
 
-    /**
-     * Check if bill category exists
-     */
-    private boolean billCategoryExists(Connection connection, String category) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM bill_categories WHERE LOWER(category_name) = LOWER(?) AND is_deleted = false";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, category);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                return resultSet.next() && resultSet.getInt(1) > 0;
+            try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
             }
         }
     }
 
-    /**
-     * Create bill category
-     */
-    private void createBillCategory(Connection connection, String category, String description) throws SQLException {
-        String sql = "INSERT INTO bill_categories (category_name, description, is_deleted) VALUES (?, ?, false)";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, category);
-            statement.setString(2, description);
-            statement.executeUpdate();
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String[] statements;
+
+        private Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
         }
     }
-}
\ No newline at end of file
+}
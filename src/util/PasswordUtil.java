@@ -1,68 +1,161 @@
 // util/PasswordUtil.java
 package util;
 
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
 import java.util.Base64;
 
+/**
+ * Password hashing.
+ * New hashes use PBKDF2-HMAC-SHA256 and carry their own parameters:
+ * "$pbkdf2-sha256$<iterations>$<salt>$<hash>" (Base64), so the iteration
+ * count can be raised without invalidating stored hashes. Hashes without
+ * the prefix are the legacy single salted SHA-256 pass; they still verify,
+ * and needsRehash() tells the caller to upgrade them after a successful login.
+ * The work factor defaults to DEFAULT_ITERATIONS and can be set with
+ * -Dpassword.iterations (see calibrateIterations()).
+ */
 public class PasswordUtil {
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PBKDF2_PREFIX = "$pbkdf2-sha256$";
+    private static final int DEFAULT_ITERATIONS = 310_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int LEGACY_SALT_BYTES = 16;
+
+    private static final int ITERATIONS = Integer.getInteger("password.iterations", DEFAULT_ITERATIONS);
+
+    // SecureRandom is thread-safe; seeding one per call is the expensive part
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // SecretKeyFactory is not thread-safe; hashing runs on a small fixed pool, so one per thread is cheap
+    private static final ThreadLocal<SecretKeyFactory> KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(PBKDF2_ALGORITHM + " is not available", e);
+        }
+    });
 
     /**
-     * Hash a password with salt using SHA-256
+     * Hash a password with a fresh salt using PBKDF2
      */
     public static String hashPassword(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+
+        byte[] hash = pbkdf2(password, salt, ITERATIONS);
+
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PBKDF2_PREFIX + ITERATIONS + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Verify a password against a hash (PBKDF2 or legacy SHA-256)
+     */
+    public static boolean verifyPassword(String password, String storedHash) {
         try {
-            // Generate salt
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[16];
-            random.nextBytes(salt);
-
-            // Hash password with salt
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes());
-
-            // Combine salt and hash
-            byte[] combined = new byte[salt.length + hashedPassword.length];
-            System.arraycopy(salt, 0, combined, 0, salt.length);
-            System.arraycopy(hashedPassword, 0, combined, salt.length, hashedPassword.length);
-
-            // Encode to Base64
-            return Base64.getEncoder().encodeToString(combined);
-
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error hashing password", e);
+            if (storedHash.startsWith(PBKDF2_PREFIX)) {
+                String[] parts = storedHash.substring(PBKDF2_PREFIX.length()).split("\\$");
+                if (parts.length != 3) {
+                    return false;
+                }
+                int iterations = Integer.parseInt(parts[0]);
+                byte[] salt = Base64.getDecoder().decode(parts[1]);
+                byte[] expected = Base64.getDecoder().decode(parts[2]);
+
+                return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations, expected.length * 8));
+            }
+            return verifyLegacyPassword(password, storedHash);
+
+        } catch (Exception e) {
+            return false;
         }
     }
 
     /**
-     * Verify a password against a hash
+     * Whether a stored hash is weaker than what hashPassword() produces today
      */
-    public static boolean verifyPassword(String password, String storedHash) {
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PBKDF2_PREFIX)) {
+            return true;
+        }
+        int end = storedHash.indexOf('$', PBKDF2_PREFIX.length());
         try {
-            // Decode the stored hash
-            byte[] combined = Base64.getDecoder().decode(storedHash);
+            return end < 0 || Integer.parseInt(storedHash.substring(PBKDF2_PREFIX.length(), end)) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
 
-            // Extract salt (first 16 bytes)
-            byte[] salt = new byte[16];
-            System.arraycopy(combined, 0, salt, 0, 16);
+    /**
+     * Find the iteration count whose p99 hashing time fits a latency budget on this machine.
+     * Run on production-class hardware and pass the result as -Dpassword.iterations.
+     * @param budgetMillis p99 time one hash may take
+     * @param samples hashes timed per measurement
+     */
+    public static int calibrateIterations(long budgetMillis, int samples) {
+        int probeIterations = 50_000;
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+
+        // Warm up the JIT before timing
+        for (int i = 0; i < 3; i++) {
+            pbkdf2("calibration", salt, probeIterations);
+        }
 
-            // Extract hash (remaining bytes)
-            byte[] storedPasswordHash = new byte[combined.length - 16];
-            System.arraycopy(combined, 16, storedPasswordHash, 0, storedPasswordHash.length);
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            pbkdf2("calibration", salt, probeIterations);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p99Nanos = nanos[Math.min(samples - 1, (int) Math.ceil(samples * 0.99) - 1)];
 
-            // Hash the provided password with the extracted salt
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(salt);
-            byte[] providedPasswordHash = md.digest(password.getBytes());
+        // Cost is linear in the iteration count
+        long iterations = probeIterations * (budgetMillis * 1_000_000L) / Math.max(1, p99Nanos);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(10_000, iterations / 10_000 * 10_000));
+    }
 
-            // Compare hashes
-            return MessageDigest.isEqual(storedPasswordHash, providedPasswordHash);
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        return pbkdf2(password, salt, iterations, HASH_BITS);
+    }
 
-        } catch (Exception e) {
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations, int keyBits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyBits);
+        try {
+            return KEY_FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException("Error hashing password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Legacy format: Base64(16-byte salt + SHA-256(salt + password))
+     */
+    private static boolean verifyLegacyPassword(String password, String storedHash) throws GeneralSecurityException {
+        byte[] combined = Base64.getDecoder().decode(storedHash);
+        if (combined.length <= LEGACY_SALT_BYTES) {
             return false;
         }
+
+        byte[] salt = Arrays.copyOfRange(combined, 0, LEGACY_SALT_BYTES);
+        byte[] storedPasswordHash = Arrays.copyOfRange(combined, LEGACY_SALT_BYTES, combined.length);
+
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        md.update(salt);
+        byte[] providedPasswordHash = md.digest(password.getBytes(StandardCharsets.UTF_8));
+
+        return MessageDigest.isEqual(storedPasswordHash, providedPasswordHash);
     }
 
     /**
@@ -100,7 +193,7 @@ public class PasswordUtil {
      */
     public static String generatePassword(int length) {
         String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*";
-        SecureRandom random = new SecureRandom();
+        SecureRandom random = RANDOM;
         StringBuilder password = new StringBuilder();
 
         // Ensure at least one of each required character type
@@ -3,6 +3,7 @@ package view;
 
 import model.entity.Account;
 import model.entity.Transaction;
+import model.service.TransactionService;
 import util.AccountUtil;
 
 import java.math.BigDecimal;
@@ -388,27 +389,55 @@ public class BankingView {
         System.out.println("=".repeat(75));
 
         for (Transaction transaction : transactions) {
-            System.out.println("Date: " + transaction.getCreatedAt().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm")));
-            System.out.println("Type: " + transaction.getTransactionTypeName());
-            System.out.println("Status: " + transaction.getStatusDisplay());
-            System.out.println("Amount: " + formatTransactionAmount(transaction));
-
-            if (transaction.getSenderAccountNo() != null) {
-                System.out.println("From: " + transaction.getSenderAccountName() + " - " +
-                        AccountUtil.formatAccountNumber(transaction.getSenderAccountNo()));
-            }
+            displayTransactionEntry(transaction);
+        }
+    }
 
-            if (transaction.getReceiverAccountNo() != null) {
-                System.out.println("To: " + transaction.getReceiverAccountName() + " - " +
-                        AccountUtil.formatAccountNumber(transaction.getReceiverAccountNo()));
-            }
+    /**
+     * Display one page of transaction history; the header is printed with the first page only
+     */
+    public void displayTransactionHistoryPage(List<Transaction> transactions, int pageNumber) {
+        if (pageNumber == 1) {
+            displayTransactionHistory(transactions);
+            return;
+        }
 
-            if (transaction.getRemark() != null) {
-                System.out.println("Remark: " + transaction.getRemark());
-            }
+        System.out.println("\n--- Page " + pageNumber + " ---");
+        for (Transaction transaction : transactions) {
+            displayTransactionEntry(transaction);
+        }
+    }
 
-            System.out.println("-".repeat(75));
+    /**
+     * Ask whether to load the next page of transaction history
+     */
+    public boolean askShowMoreTransactions() {
+        System.out.print("Show more transactions? (y/n): ");
+        String response = scanner.nextLine().trim().toLowerCase();
+        return response.equals("y") || response.equals("yes");
+    }
+
+    private void displayTransactionEntry(Transaction transaction) {
+        System.out.println("Date: " + transaction.getCreatedAt().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm")));
+        System.out.println("Type: " + transaction.getTransactionTypeName());
+        System.out.println("Status: " + transaction.getStatusDisplay());
+        System.out.println("Amount: " + formatTransactionAmount(transaction));
+
+        if (transaction.getSenderAccountNo() != null) {
+            System.out.println("From: " + transaction.getSenderAccountName() + " - " +
+                    AccountUtil.formatAccountNumber(transaction.getSenderAccountNo()));
+        }
+
+        if (transaction.getReceiverAccountNo() != null) {
+            System.out.println("To: " + transaction.getReceiverAccountName() + " - " +
+                    AccountUtil.formatAccountNumber(transaction.getReceiverAccountNo()));
+        }
+
+        if (transaction.getRemark() != null) {
+            System.out.println("Remark: " + transaction.getRemark());
         }
+
+        System.out.println("-".repeat(75));
     }
 
     /**
@@ -455,6 +484,106 @@ public class BankingView {
         }
     }
 
+    /**
+     * Display the outcome of a deposit
+     */
+    public void displayDepositResult(TransactionService.TransactionResult result) {
+        if (!result.isSuccess()) {
+            displayTransactionFailure(result, "Deposit");
+            return;
+        }
+        String currency = result.getAccount().getAccountCurrency();
+        System.out.println("✅ Deposit successful!");
+        System.out.println("   Amount: " + AccountUtil.formatCurrency(result.getAmount(), currency));
+        System.out.println("   New Balance: " + AccountUtil.formatCurrency(result.getNewBalance(), currency));
+    }
+
+    /**
+     * Display the outcome of a withdrawal
+     */
+    public void displayWithdrawalResult(TransactionService.TransactionResult result) {
+        if (!result.isSuccess()) {
+            displayTransactionFailure(result, "Withdrawal");
+            return;
+        }
+        String currency = result.getAccount().getAccountCurrency();
+        System.out.println("✅ Withdrawal successful!");
+        System.out.println("   Amount: " + AccountUtil.formatCurrency(result.getAmount(), currency));
+        System.out.println("   New Balance: " + AccountUtil.formatCurrency(result.getNewBalance(), currency));
+    }
+
+    /**
+     * Display the outcome of a transfer
+     */
+    public void displayTransferResult(TransactionService.TransactionResult result) {
+        if (!result.isSuccess()) {
+            displayTransactionFailure(result, "Transfer");
+            return;
+        }
+        Account from = result.getAccount();
+        Account to = result.getReceiverAccount();
+        System.out.println("✅ Transfer successful!");
+        System.out.println("   From: " + from.getAccountName() + " - " + from.getFormattedAccountNo());
+        System.out.println("   To: " + to.getAccountName() + " - " + to.getFormattedAccountNo());
+        System.out.println("   Amount Sent: " + AccountUtil.formatCurrency(result.getAmount(), from.getAccountCurrency()));
+
+        if (result.isCurrencyConverted()) {
+            System.out.println("   Amount Received: " +
+                    AccountUtil.formatCurrency(result.getConvertedAmount(), to.getAccountCurrency()));
+            System.out.println("   Exchange Rate: 1 " + from.getAccountCurrency() + " = " +
+                    result.getExchangeRate().stripTrailingZeros().toPlainString() + " " + to.getAccountCurrency());
+        }
+
+        System.out.println("   New Balance (From): " + AccountUtil.formatCurrency(result.getNewBalance(), from.getAccountCurrency()));
+        System.out.println("   New Balance (To): " + AccountUtil.formatCurrency(result.getNewReceiverBalance(), to.getAccountCurrency()));
+    }
+
+    /**
+     * Explain why a deposit/withdrawal/transfer was refused
+     * @param operation "Deposit", "Withdrawal" or "Transfer"
+     */
+    private void displayTransactionFailure(TransactionService.TransactionResult result, String operation) {
+        boolean transfer = "Transfer".equals(operation);
+        Account account = result.getAccount();
+        String currency = account != null ? account.getAccountCurrency() : null;
+
+        switch (result.getErrorCode()) {
+            case ACCOUNT_NOT_FOUND -> showErrorMessage(transfer ? "Sender account not found!" : "Account not found!");
+            case RECEIVER_NOT_FOUND -> showErrorMessage("Receiver account not found!");
+            case SAME_ACCOUNT -> showErrorMessage("Cannot transfer to the same account!");
+            case ACCOUNT_INACTIVE -> showErrorMessage(transfer ? "Sender account is not active!" : "Account is not active!");
+            case RECEIVER_INACTIVE -> showErrorMessage("Receiver account is not active!");
+            case NOT_MATURED -> showErrorMessage("Fixed account " + (transfer ? "transfers" : "withdrawals") +
+                    " are not allowed until maturity date: " + account.getMaturityDate());
+            case INVALID_AMOUNT -> showErrorMessage(operation + " amount must be greater than zero!");
+            case INSUFFICIENT_FUNDS -> {
+                showErrorMessage("Insufficient balance!");
+                // Only when the balance already looked short; otherwise it changed underneath us
+                if (account.getBalance().compareTo(result.getAmount()) < 0) {
+                    System.out.println("   Available: " + AccountUtil.formatCurrency(account.getBalance(), currency));
+                    System.out.println("   Requested: " + AccountUtil.formatCurrency(result.getAmount(), currency));
+                }
+            }
+            case DAILY_LIMIT_EXCEEDED -> {
+                showErrorMessage("Daily transaction limit exceeded!");
+                System.out.println("   Daily Limit: " + AccountUtil.formatCurrency(result.getDailyLimit(), currency));
+                System.out.println("   Already Used Today: " + AccountUtil.formatCurrency(result.getUsedToday(), currency));
+                System.out.println("   Requested: " + AccountUtil.formatCurrency(result.getAmount(), currency));
+                System.out.println("   Remaining: " +
+                        AccountUtil.formatCurrency(result.getDailyLimit().subtract(result.getUsedToday()), currency));
+            }
+            case DAILY_LIMIT_UNAVAILABLE -> showErrorMessage(
+                    "Daily limit usage could not be checked right now. Please try again.");
+            case TRANSACTION_TYPE_MISSING -> showErrorMessage(
+                    ("Withdrawal".equals(operation) ? "Withdraw" : operation) + " transaction type not found!");
+            case OUTCOME_UNKNOWN -> {
+                showErrorMessage(operation + " could not be confirmed - it may or may not have gone through.");
+                System.out.println("   Check your balance and transaction history before trying again.");
+            }
+            default -> showErrorMessage("Failed to complete " + operation.toLowerCase() + "!");
+        }
+    }
+
     /**
      * Format transaction amount for display
      */
@@ -499,6 +628,13 @@ public class BankingView {
         scanner.nextLine();
     }
 
+    /**
+     * Read one line of input
+     */
+    public String readLine() {
+        return scanner.nextLine();
+    }
+
     // ========== DATA CLASSES ==========
 
     public enum TransferType {
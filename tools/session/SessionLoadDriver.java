@@ -0,0 +1,140 @@
+// session/SessionLoadDriver.java
+package session;
+
+import context.AppContext;
+import database.Database;
+import util.DatabaseInitUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Load driver for SessionExecutor: runs many simulated console sessions at
+ * once and reports throughput and session latency.
+ * Each session logs in as one of the given users, opens the transaction
+ * history, logs out and disconnects, exactly as a remote client typing the
+ * same lines would. Logins are throttled per username (5, then one every
+ * 20 seconds), so use at least sessions / 5 users or some sessions will be
+ * refused; those are reported separately.
+ *
+ * Usage: SessionLoadDriver <sessions> <username format> <password> [users]
+ *   e.g. SessionLoadDriver 2000 loadtest%d Secret123! 500
+ * The format gets the user number (0 .. users-1); the users must exist.
+ * Lives in the tools source root, so it is not part of the application build.
+ */
+public class SessionLoadDriver {
+    // Marker printed once a customer is signed in
+    private static final String PORTAL_BANNER = "CUSTOMER PORTAL";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: SessionLoadDriver <sessions> <username format> <password> [users]");
+            return;
+        }
+        int sessions = Integer.parseInt(args[0]);
+        String usernameFormat = args[1];
+        String password = args[2];
+        int users = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        if (sessions < 1 || users < 1) {
+            System.err.println("Sessions and users must be at least 1");
+            return;
+        }
+
+        new DatabaseInitUtil().initializeAll();
+        AppContext.getInstance().getReferenceData().reload();
+
+        SessionExecutor executor = new SessionExecutor();
+        List<Future<?>> futures = new ArrayList<>(sessions);
+        List<RecordingOutput> outputs = new ArrayList<>(sessions);
+        int peakActive = 0;
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            String username = String.format(usernameFormat, i % users);
+            RecordingOutput out = new RecordingOutput();
+            outputs.add(out);
+            futures.add(executor.submit(new ByteArrayInputStream(script(username, password)), out, "load-" + i));
+            peakActive = Math.max(peakActive, executor.getActiveSessions());
+        }
+
+        int failed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                failed++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        // A session's output is flushed when it ends, so its last write marks the end
+        long[] durations = new long[sessions];
+        int signedIn = 0;
+        for (int i = 0; i < sessions; i++) {
+            RecordingOutput out = outputs.get(i);
+            durations[i] = out.lastWriteAt - out.createdAt;
+            if (out.toString(StandardCharsets.UTF_8).contains(PORTAL_BANNER)) {
+                signedIn++;
+            }
+        }
+
+        Arrays.sort(durations);
+        System.out.println("Sessions:      " + sessions + " (" + signedIn + " signed in, " +
+                (sessions - signedIn - failed) + " refused, " + failed + " failed)");
+        System.out.println("Elapsed:       " + elapsedNanos / 1_000_000 + " ms");
+        System.out.printf("Throughput:    %.1f sessions/s%n", sessions / (elapsedNanos / 1e9));
+        System.out.println("Latency p50:   " + percentile(durations, 50) + " ms");
+        System.out.println("Latency p99:   " + percentile(durations, 99) + " ms");
+        System.out.println("Latency max:   " + durations[sessions - 1] / 1_000_000 + " ms");
+        System.out.println("Peak active:   " + peakActive);
+
+        Database database = AppContext.getInstance().getDatabase();
+        System.out.println("Pool:          " + database.getPoolStats());
+
+        executor.shutdown();
+        AppContext.getInstance().getJournalWriter().close();
+        database.shutdown();
+    }
+
+    /**
+     * Lines one client types: login, transaction history, back, logout.
+     * The input then ends, which closes the session.
+     */
+    private static byte[] script(String username, String password) {
+        String lines = String.join("\n",
+                "1", username, password, "",
+                "4", "", "0", "",
+                "0", "") + "\n";
+        return lines.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Session output, remembering when it was last written to
+     */
+    private static final class RecordingOutput extends ByteArrayOutputStream {
+        private final long createdAt = System.nanoTime();
+        private volatile long lastWriteAt = createdAt;
+
+        @Override
+        public synchronized void write(int b) {
+            super.write(b);
+            lastWriteAt = System.nanoTime();
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            lastWriteAt = System.nanoTime();
+        }
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percent / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000;
+    }
+}